@@ -13,4 +13,6 @@ public class AuthenticationRequest {
 
     private String email;
     String password;
+    // pending cart built before logging in, merged into the user's cart
+    private Long cartId;
 }
@@ -15,4 +15,6 @@ public class RegisterRequest {
     private String password;
     private String firstName;
     private String lastName;
+    // pending cart built before logging in, merged into the user's cart
+    private Long cartId;
 }
@@ -4,6 +4,7 @@ import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import project.backend.auth.dto.AuthenticationRequest;
 import project.backend.auth.dto.AuthenticationResponse;
 import project.backend.auth.dto.RegisterRequest;
+import project.backend.carts.cartItem.service.CartItemService;
 import project.backend.config.service.JwtService;
 import project.backend.exception.types.ConflictException;
 import project.backend.token.Token;
@@ -11,6 +12,7 @@ import project.backend.token.TokenRepository;
 import project.backend.token.TokenType;
 import project.backend.user.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
@@ -27,6 +30,7 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
+    private final CartItemService cartItemService;
 
     public ResponseEntity<Object> register(RegisterRequest request) {
         if (repository.findByEmail(request.getEmail()).isPresent()) {
@@ -43,6 +47,7 @@ public class AuthenticationService {
         var jwtAccessToken = jwtService.generateAccessToken(user);
         var jwtRefreshToken = jwtService.generateRefreshToken(user);
         saveUserToken(user, jwtAccessToken, jwtRefreshToken);
+        mergeGuestCart(request.getCartId(), user);
         var userDTO = userMapper.mapToDTO(user);
 
         return ResponseEntity.ok(AuthenticationResponse.builder()
@@ -67,6 +72,7 @@ public class AuthenticationService {
         var jwtAccessToken = jwtService.generateAccessToken(user);
         var jwtRefreshToken = jwtService.generateRefreshToken(user);
         saveUserToken(user, jwtAccessToken, jwtRefreshToken);
+        mergeGuestCart(request.getCartId(), user);
         var userDTO = userMapper.mapToDTO(user);
 
         return new AuthenticationResponse(jwtAccessToken, jwtRefreshToken, userDTO);
@@ -85,6 +91,7 @@ public class AuthenticationService {
             var jwtAccessToken = jwtService.generateAccessToken(user);
             var jwtRefreshToken = jwtService.generateRefreshToken(user);
             saveUserToken(user, jwtAccessToken, jwtRefreshToken);
+            mergeGuestCart(request.getCartId(), user);
             var userDTO = userMapper.mapToDTO(user);
 
             return ResponseEntity.ok(AuthenticationResponse.builder()
@@ -111,6 +118,18 @@ public class AuthenticationService {
         tokenRepository.save(token);
     }
 
+    // a cart that cannot be merged must not fail the login, the items simply stay in the guest cart
+    private void mergeGuestCart(Long cartId, User user) {
+        if (cartId == null) {
+            return;
+        }
+        try {
+            cartItemService.mergeGuestCart(cartId, user);
+        } catch (RuntimeException e) {
+            log.warn("Could not merge guest cart {} into the cart of user {}", cartId, user.getId(), e);
+        }
+    }
+
     private void revokeAllUserTokens(User user) {
         var validUserTokens = tokenRepository.findAllValidTokenByUser(user.getId().intValue());
         if (validUserTokens.isEmpty())
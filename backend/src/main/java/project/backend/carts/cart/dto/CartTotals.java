@@ -0,0 +1,7 @@
+package project.backend.carts.cart.dto;
+
+public record CartTotals(
+        Long totalPriceMinor,
+        Long itemCount
+) {
+}
@@ -39,7 +39,15 @@ public class Cart extends AuditorEntity {
             cascade = CascadeType.ALL
     )
     private List<CartItem> items;
-    private BigDecimal totalPrice;
+    // kept up to date by CartRepository.adjustTotals on every item change, never written from the entity
+    @Column(name = "total_price_minor", nullable = false, updatable = false)
+    private long totalPriceMinor;
+    @Column(name = "item_count", nullable = false, updatable = false)
+    private int itemCount;
     @Enumerated(EnumType.STRING)
     private CartStatus cartStatus;
+
+    public BigDecimal getTotalPrice() {
+        return BigDecimal.valueOf(totalPriceMinor, 2);
+    }
 }
@@ -35,12 +35,15 @@ public class CartCommandLineRunner implements CommandLineRunner {
             Cart cart = Cart.builder()
                     .cartStatus(CartStatus.COMPLETED)
                     .user(userRepository.findAll().get(0))
+                    .totalPriceMinor(course.get().getEffectivePriceMinor())
+                    .itemCount(1)
                     .build();
             Cart tmp = cartRepository.save(cart);
 
             CartItem cartItem = CartItem.builder()
                     .course(course.get())
                     .cart(tmp)
+                    .priceMinor(course.get().getEffectivePriceMinor())
                     .build();
             cartItemRepository.save(cartItem);
 
@@ -53,12 +56,15 @@ public class CartCommandLineRunner implements CommandLineRunner {
             Cart cart2 = Cart.builder()
                     .cartStatus(CartStatus.PENDING)
                     .user(userRepository.findAll().get(0))
+                    .totalPriceMinor(coursePending.getEffectivePriceMinor())
+                    .itemCount(1)
                     .build();
             Cart tmp2 = cartRepository.save(cart2);
 
             CartItem cartItem2 = CartItem.builder()
                     .course(coursePending)
                     .cart(tmp2)
+                    .priceMinor(coursePending.getEffectivePriceMinor())
                     .build();
             cartItemRepository.save(cartItem2);
 
@@ -1,14 +1,15 @@
 package project.backend.carts.cart.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import project.backend.carts.cart.dto.CartTotals;
 import project.backend.carts.cart.model.Cart;
 import project.backend.carts.cart.model.CartStatus;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
@@ -19,10 +20,28 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     boolean existsByUserIdAndCartStatus(Long userId, CartStatus cartStatus);
 
 
-    @Query("SELECT c FROM Cart c JOIN c.items ci WHERE c.user.email = :userEmail AND ci.course.id = :courseId")
-    Optional<Cart> findByUserEmailAndCourseId(@Param("userEmail") String userEmail, @Param("courseId") Long courseId);
-
     @Query("SELECT c FROM Cart c JOIN c.items ci WHERE ci.course.id = :courseId AND c.cartStatus = :cartStatus")
     List<Cart> findAllCartsByCourseIdAndStatus(@Param("courseId") Long courseId, @Param("cartStatus") CartStatus cartStatus);
 
+    // a single relative update, concurrent item changes of one cart cannot lose each other's deltas
+    @Modifying
+    @Query(value = """
+            UPDATE cart
+            SET total_price_minor = total_price_minor + :priceMinorDelta, item_count = item_count + :itemCountDelta
+            WHERE id = :cartId
+            """, nativeQuery = true)
+    int adjustTotals(Long cartId, long priceMinorDelta, int itemCountDelta);
+
+    @Modifying
+    @Query(value = "UPDATE cart SET total_price_minor = :totalPriceMinor, item_count = :itemCount WHERE id = :cartId", nativeQuery = true)
+    int setTotals(Long cartId, long totalPriceMinor, int itemCount);
+
+    // totals from the prices captured on the items, the same values adjustTotals adds up, read only at checkout
+    @Query("""
+            SELECT new project.backend.carts.cart.dto.CartTotals(COALESCE(SUM(ci.priceMinor), 0), COUNT(ci))
+            FROM CartItem ci
+            WHERE ci.cart.id = :cartId
+            """)
+    CartTotals computeTotals(Long cartId);
+
 }
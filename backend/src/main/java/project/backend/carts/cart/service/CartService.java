@@ -19,6 +19,8 @@ public interface CartService {
 
     Cart updateCart(Long cartId, Cart cartDetails);
 
+    void adjustTotals(Long cartId, long priceMinorDelta, int itemCountDelta);
+
     void deleteCart(Long cartId);
 
     Optional<Cart> getOptionalPendingCartByUserEmail(String email);
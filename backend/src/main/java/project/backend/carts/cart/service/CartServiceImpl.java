@@ -1,12 +1,15 @@
 package project.backend.carts.cart.service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import project.backend.carts.cart.dto.CartTotals;
 import project.backend.carts.cart.repository.CartRepository;
 import project.backend.carts.cart.model.Cart;
 import project.backend.carts.cart.model.CartStatus;
 
-import project.backend.courses.course.model.Course;
+import project.backend.carts.entitlement.service.EntitlementService;
 import project.backend.exception.types.ForbiddenException;
 import project.backend.exception.types.ResourceNotFoundException;
 import project.backend.permission.service.PermissionService;
@@ -17,12 +20,14 @@ import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final UserService userService;
     private final PermissionService permissionService;
+    private final EntitlementService entitlementService;
 
     @Override
     public List<Cart> getAllCarts() {
@@ -43,18 +48,44 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @Transactional
     public Cart updateCart(Long cartId, Cart cartDetails) {
         Cart cart = getCartById(cartId);
+        boolean completed = cart.getCartStatus() != CartStatus.COMPLETED && cartDetails.getCartStatus() == CartStatus.COMPLETED;
 
         if (CartStatus.PENDING == cartDetails.getCartStatus() && cartRepository.existsByUserIdAndCartStatus(cart.getUser().getId(), CartStatus.PENDING)) {
             throw new IllegalStateException("There is already a pending cart for this user.");
         }
 
         cart.setItems(cartDetails.getItems());
-        cart.setTotalPrice(cartDetails.getTotalPrice());
         cart.setCartStatus(cartDetails.getCartStatus());
 
-        return cartRepository.save(cart);
+        if (completed) {
+            verifyTotals(cart);
+        }
+        Cart savedCart = cartRepository.save(cart);
+        if (completed && cart.getUser() != null) {
+            entitlementService.grantCartCourses(savedCart.getId(), cart.getUser().getId());
+        }
+        return savedCart;
+    }
+
+    @Override
+    @Transactional
+    public void adjustTotals(Long cartId, long priceMinorDelta, int itemCountDelta) {
+        cartRepository.adjustTotals(cartId, priceMinorDelta, itemCountDelta);
+    }
+
+    // the totals are maintained incrementally, checkout is the only place they are recomputed from the items
+    private void verifyTotals(Cart cart) {
+        CartTotals totals = cartRepository.computeTotals(cart.getId());
+        if (totals.totalPriceMinor() != cart.getTotalPriceMinor() || totals.itemCount() != cart.getItemCount()) {
+            log.warn("Cart {} totals {}/{} did not match its items {}/{}, correcting", cart.getId(),
+                    cart.getTotalPriceMinor(), cart.getItemCount(), totals.totalPriceMinor(), totals.itemCount());
+            cartRepository.setTotals(cart.getId(), totals.totalPriceMinor(), totals.itemCount().intValue());
+            cart.setTotalPriceMinor(totals.totalPriceMinor());
+            cart.setItemCount(totals.itemCount().intValue());
+        }
     }
 
     @Override
@@ -117,20 +148,8 @@ public class CartServiceImpl implements CartService {
         if(permissionService.hasRole(principal, "ROLE_ADMIN")) {
             return true;
         }
-        User user = userService.getUserByEmail(principal.getName());
-
-        Optional<Course> isAuthorOfCourse = user.getCourseList().stream().filter(c -> c.getId().equals(courseId)).findFirst();
-
-        if(isAuthorOfCourse.isPresent())
-            return true;
-
-        Optional<Cart> cart = cartRepository.findByUserEmailAndCourseId(principal.getName(), courseId);
-
-        if(cart.isEmpty()){
-            return false;
-        }
-
-        return cart.get().getCartStatus() == CartStatus.COMPLETED;
+        // authored and purchased courses are both entitlements, answered from the owner's cached bitmap
+        return entitlementService.hasCourse(userService.getUserId(principal), courseId);
     }
 
     @Override
@@ -3,7 +3,9 @@ package project.backend.carts.cartItem.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import project.backend.carts.cartItem.model.CartItem;
+import project.backend.carts.cartItem.dto.CartItemBatchDTO;
 import project.backend.carts.cartItem.dto.CartItemDTO;
+import project.backend.carts.cartItem.request.CartItemBatchRequest;
 import project.backend.carts.cartItem.request.CartItemRequest;
 
 import java.security.Principal;
@@ -20,6 +22,9 @@ public interface CartItemController {
     @PostMapping
     ResponseEntity<CartItemDTO> createCartItem(Principal principal, @RequestBody CartItemRequest cartItemRequest);
 
+    @PostMapping("batch")
+    ResponseEntity<CartItemBatchDTO> createCartItems(Principal principal, @RequestBody CartItemBatchRequest request);
+
     @PutMapping("/{id}")
     ResponseEntity<CartItem> updateCartItem(@PathVariable("id") Long cartItemId, @RequestBody CartItem cartItemDetails);
 
@@ -5,7 +5,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import project.backend.carts.cartItem.model.CartItem;
+import project.backend.carts.cartItem.dto.CartItemBatchDTO;
 import project.backend.carts.cartItem.dto.CartItemDTO;
+import project.backend.carts.cartItem.request.CartItemBatchRequest;
 import project.backend.carts.cartItem.request.CartItemRequest;
 import project.backend.carts.cartItem.service.CartItemService;
 
@@ -40,6 +42,13 @@ public class CartItemControllerImpl implements CartItemController {
         return new ResponseEntity<>(createdCartItem, HttpStatus.CREATED);
     }
 
+    @Override
+    @PostMapping("batch")
+    public ResponseEntity<CartItemBatchDTO> createCartItems(Principal principal, @RequestBody CartItemBatchRequest request) {
+        CartItemBatchDTO cartItems = cartItemService.createCartItems(request, principal);
+        return new ResponseEntity<>(cartItems, HttpStatus.CREATED);
+    }
+
     @Override
     @PutMapping("/{id}")
     public ResponseEntity<CartItem> updateCartItem(@PathVariable("id") Long cartItemId, @RequestBody CartItem cartItemDetails) {
@@ -0,0 +1,9 @@
+package project.backend.carts.cartItem.dto;
+
+import java.util.List;
+
+// skippedCourseIds are the requested courses the user already owns, they were not added
+public record CartItemBatchDTO(
+        List<CartItemDTO> items,
+        List<Long> skippedCourseIds) {
+}
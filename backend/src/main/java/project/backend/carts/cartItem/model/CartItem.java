@@ -34,4 +34,7 @@ public class CartItem {
     @ManyToOne
     @JoinColumn(name = "course_id")
     private Course course;
+    // effective price of the course when it was added, removing the item subtracts exactly this
+    @Column(name = "price_minor", nullable = false)
+    private long priceMinor;
 }
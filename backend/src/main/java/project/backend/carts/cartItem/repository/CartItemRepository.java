@@ -1,10 +1,40 @@
 package project.backend.carts.cartItem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import project.backend.carts.cartItem.model.CartItem;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-}
 
+    List<CartItem> findByCartIdAndCourseIdIn(Long cartId, Collection<Long> courseIds);
+
+    @Query("SELECT ci.course.id FROM CartItem ci WHERE ci.cart.id = :cartId")
+    List<Long> findCourseIdsByCartId(Long cartId);
+
+    /*
+        Adds every given course that is not in the cart yet with one multi-row insert, at the course's effective price,
+        and adds the inserted items to the cart totals in the same statement. Unknown course ids are skipped.
+     */
+    @Modifying
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO cart_item (id, cart_id, course_id, price_minor)
+                SELECT nextval('cart_item_sequence'), :cartId, co.id, co.effective_price_minor
+                FROM course co
+                WHERE co.id IN (:courseIds)
+                AND NOT EXISTS (SELECT 1 FROM cart_item ci WHERE ci.cart_id = :cartId AND ci.course_id = co.id)
+                RETURNING price_minor
+            )
+            UPDATE cart
+            SET total_price_minor = total_price_minor + (SELECT COALESCE(SUM(price_minor), 0) FROM inserted),
+                item_count = item_count + (SELECT COUNT(*) FROM inserted)
+            WHERE id = :cartId
+            """, nativeQuery = true)
+    int addCourses(Long cartId, Collection<Long> courseIds);
+}
@@ -0,0 +1,9 @@
+package project.backend.carts.cartItem.request;
+
+import java.util.List;
+
+public record CartItemBatchRequest(
+        List<Long> courseIds,
+        Long cartId
+) {
+}
@@ -1,8 +1,11 @@
 package project.backend.carts.cartItem.service;
 
+import project.backend.carts.cartItem.dto.CartItemBatchDTO;
 import project.backend.carts.cartItem.dto.CartItemDTO;
 import project.backend.carts.cartItem.model.CartItem;
+import project.backend.carts.cartItem.request.CartItemBatchRequest;
 import project.backend.carts.cartItem.request.CartItemRequest;
+import project.backend.user.User;
 
 import java.security.Principal;
 import java.util.List;
@@ -15,6 +18,10 @@ public interface CartItemService {
 
     CartItemDTO createCartItem(CartItemRequest cartItemRequest, Principal principal);
 
+    CartItemBatchDTO createCartItems(CartItemBatchRequest request, Principal principal);
+
+    void mergeGuestCart(Long guestCartId, User user);
+
     CartItem updateCartItem(Long cartItemId, CartItem cartItemDetails);
 
     void deleteCartItem(Long cartItemId);
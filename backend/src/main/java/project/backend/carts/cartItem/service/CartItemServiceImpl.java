@@ -1,14 +1,19 @@
 package project.backend.carts.cartItem.service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import project.backend.carts.cart.model.Cart;
 import project.backend.carts.cart.service.CartService;
 import project.backend.carts.cart.model.CartStatus;
+import project.backend.carts.cartItem.request.CartItemBatchRequest;
 import project.backend.carts.cartItem.request.CartItemRequest;
 import project.backend.carts.cartItem.model.CartItem;
+import project.backend.carts.cartItem.dto.CartItemBatchDTO;
 import project.backend.carts.cartItem.dto.CartItemDTO;
 import project.backend.carts.cartItem.repository.CartItemRepository;
+import project.backend.carts.entitlement.service.EntitlementService;
 import project.backend.courses.course.model.Course;
 import project.backend.courses.course.service.CourseService;
 import project.backend.exception.types.BadRequestException;
@@ -17,17 +22,24 @@ import project.backend.user.User;
 import project.backend.user.UserService;
 
 import java.security.Principal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class CartItemServiceImpl implements CartItemService {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final CartItemRepository cartItemRepository;
     private final CartService cartService;
     private final CourseService courseService;
     private final UserService userService;
     private final CartItemMapper cartItemMapper;
+    private final EntitlementService entitlementService;
 
     @Override
     public List<CartItem> getAllCartItems() {
@@ -43,8 +55,9 @@ public class CartItemServiceImpl implements CartItemService {
     }
 
     @Override
+    @Transactional
     public CartItemDTO createCartItem(CartItemRequest cartItemRequest, Principal principal) {
-        Cart cart = getCartFromRequest(cartItemRequest, principal);
+        Cart cart = getCartFromRequest(cartItemRequest.cartId(), principal);
         if(cartService.hasBoughtCourse(cartItemRequest.courseId(), principal)){
             throw new BadRequestException("You have already bought this course.");
         }
@@ -52,13 +65,74 @@ public class CartItemServiceImpl implements CartItemService {
         CartItem cartItem = CartItem.builder()
                 .cart(cart)
                 .course(course)
+                .priceMinor(course.getEffectivePriceMinor())
                 .build();
 
         cartItem = cartItemRepository.save(cartItem);
+        cartService.adjustTotals(cart.getId(), cartItem.getPriceMinor(), 1);
         return cartItemMapper.mapToDTO(cartItem);
     }
 
-    private Cart getCartFromRequest(CartItemRequest cartItemRequest, Principal principal) {
+    /*
+        All courses are checked against the caller's entitlements at once and inserted with a single statement.
+        Courses the caller already owns are skipped and reported instead of failing the whole batch.
+     */
+    @Override
+    @Transactional
+    public CartItemBatchDTO createCartItems(CartItemBatchRequest request, Principal principal) {
+        if (request.courseIds() == null || request.courseIds().isEmpty())
+            throw new BadRequestException("Course ids are required.");
+        if (request.courseIds().size() > MAX_BATCH_SIZE)
+            throw new BadRequestException("At most %d courses can be added at once.".formatted(MAX_BATCH_SIZE));
+        if (request.courseIds().stream().anyMatch(Objects::isNull))
+            throw new BadRequestException("Course ids must not be null.");
+
+        Set<Long> courseIds = new LinkedHashSet<>(request.courseIds());
+        // real entitlements only, queryEntitlements reports every course as owned for admins
+        Set<Long> owned = principal == null
+                ? Set.of()
+                : entitlementService.findOwnedCourseIds(userService.getUserId(principal), courseIds);
+        List<Long> bought = courseIds.stream().filter(owned::contains).toList();
+        courseIds.removeAll(owned);
+        if (courseIds.isEmpty())
+            return new CartItemBatchDTO(List.of(), bought);
+
+        Cart cart = getCartFromRequest(request.cartId(), principal);
+        cartItemRepository.addCourses(cart.getId(), courseIds);
+        List<CartItemDTO> items = cartItemRepository.findByCartIdAndCourseIdIn(cart.getId(), courseIds).stream()
+                .map(cartItemMapper::mapToDTO)
+                .toList();
+        return new CartItemBatchDTO(items, bought);
+    }
+
+    /*
+        Moves the courses of an anonymous pending cart into the pending cart of the user that just logged in.
+        Courses the user already owns or already has in the cart are dropped, the guest cart is deleted.
+     */
+    @Override
+    @Transactional
+    public void mergeGuestCart(Long guestCartId, User user) {
+        Cart guestCart = cartService.getCartById(guestCartId);
+        if (guestCart.getUser() != null || guestCart.getCartStatus() != CartStatus.PENDING) {
+            return;
+        }
+
+        Set<Long> courseIds = new LinkedHashSet<>(cartItemRepository.findCourseIdsByCartId(guestCartId));
+        courseIds.removeAll(entitlementService.findOwnedCourseIds(user.getId(), courseIds));
+        if (!courseIds.isEmpty()) {
+            Cart cart = cartService.getOptionalPendingCartByUserEmail(user.getEmail())
+                    .orElseGet(() -> cartService.createCart(
+                            Cart.builder()
+                                    .user(user)
+                                    .cartStatus(CartStatus.PENDING)
+                                    .build()));
+            cartItemRepository.addCourses(cart.getId(), courseIds);
+        }
+        cartService.deleteCart(guestCartId);
+        log.debug("Merged guest cart {} into the cart of user {}", guestCartId, user.getId());
+    }
+
+    private Cart getCartFromRequest(Long cartId, Principal principal) {
         if(principal != null) {
             User user = userService.getUserByEmail(principal.getName());
             Optional<Cart> optionalCart = cartService.getOptionalPendingCartByUserEmail(user.getEmail());
@@ -67,8 +141,8 @@ public class CartItemServiceImpl implements CartItemService {
                             .user(user)
                             .cartStatus(CartStatus.PENDING)
                             .build()));
-        } else if(cartItemRequest.cartId() != null) {
-            return cartService.getCartById(cartItemRequest.cartId());
+        } else if(cartId != null) {
+            return cartService.getCartById(cartId);
         } else {
             return cartService.createCart(
                     Cart.builder()
@@ -78,21 +152,28 @@ public class CartItemServiceImpl implements CartItemService {
     }
 
     @Override
+    @Transactional
     public CartItem updateCartItem(Long cartItemId, CartItem cartItemDetails) {
         CartItem cartItem = getCartItemById(cartItemId);
-        if(cartItemDetails.getCart() != null) cartItem.setCart(cartItemDetails.getCart());
-        if(cartItemDetails.getCourse() != null) cartItem.setCourse(cartItemDetails.getCourse());
-        return cartItemRepository.save(cartItem);
+        if (cartItemDetails.getCart() == null && cartItemDetails.getCourse() == null) {
+            return cartItem;
+        }
+        // moved out of the old totals at its old price and into the new ones at the current price
+        cartService.adjustTotals(cartItem.getCart().getId(), -cartItem.getPriceMinor(), -1);
+        if(cartItemDetails.getCart() != null) cartItem.setCart(cartService.getCartById(cartItemDetails.getCart().getId()));
+        if(cartItemDetails.getCourse() != null) cartItem.setCourse(courseService.getCourseById(cartItemDetails.getCourse().getId()));
+        cartItem.setPriceMinor(cartItem.getCourse().getEffectivePriceMinor());
+        cartItem = cartItemRepository.save(cartItem);
+        cartService.adjustTotals(cartItem.getCart().getId(), cartItem.getPriceMinor(), 1);
+        return cartItem;
     }
 
     @Override
+    @Transactional
     public void deleteCartItem(Long cartItemId) {
-        if (!cartItemRepository.existsById(cartItemId)) {
-            throw new ResourceNotFoundException(
-                    String.format("CartItem with id [%s] not found.", cartItemId)
-            );
-        }
-        cartItemRepository.deleteById(cartItemId);
+        CartItem cartItem = getCartItemById(cartItemId);
+        cartItemRepository.delete(cartItem);
+        cartService.adjustTotals(cartItem.getCart().getId(), -cartItem.getPriceMinor(), -1);
     }
 
 }
@@ -0,0 +1,14 @@
+package project.backend.carts.entitlement.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import project.backend.carts.entitlement.dto.EntitlementQueryDTO;
+import project.backend.carts.entitlement.request.EntitlementQueryRequest;
+
+import java.security.Principal;
+
+public interface EntitlementController {
+    @PostMapping("query")
+    ResponseEntity<EntitlementQueryDTO> queryEntitlements(@RequestBody EntitlementQueryRequest request, Principal principal);
+}
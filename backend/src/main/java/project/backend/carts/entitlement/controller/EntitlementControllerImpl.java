@@ -0,0 +1,24 @@
+package project.backend.carts.entitlement.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import project.backend.carts.entitlement.dto.EntitlementQueryDTO;
+import project.backend.carts.entitlement.request.EntitlementQueryRequest;
+import project.backend.carts.entitlement.service.EntitlementService;
+
+import java.security.Principal;
+
+@RequestMapping("api/v1/me/entitlements")
+@RequiredArgsConstructor
+@RestController
+public class EntitlementControllerImpl implements EntitlementController {
+    private final EntitlementService entitlementService;
+
+    // ownership of every course card of a page in one request
+    @Override
+    @PostMapping("query")
+    public ResponseEntity<EntitlementQueryDTO> queryEntitlements(@RequestBody EntitlementQueryRequest request, Principal principal) {
+        return ResponseEntity.ok(entitlementService.queryEntitlements(request.courseIds(), principal));
+    }
+}
@@ -0,0 +1,8 @@
+package project.backend.carts.entitlement.dto;
+
+import java.util.Map;
+
+public record EntitlementQueryDTO(
+        Map<Long, Boolean> owned
+) {
+}
@@ -0,0 +1,48 @@
+package project.backend.carts.entitlement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+    Access of a user to a course, granted when a cart with the course is completed or when the user creates the course.
+    Checks hit the (user_id, course_id) key only, carts and course lists are never loaded for them.
+    Written only by EntitlementServiceImpl, purchases and backfills with native inserts that skip existing rows.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "entitlement",
+        uniqueConstraints = @UniqueConstraint(name = "entitlement_user_course_key", columnNames = {"user_id", "course_id"})
+)
+public class Entitlement {
+    @SequenceGenerator(
+            name = "entitlement_sequence",
+            sequenceName = "entitlement_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "entitlement_sequence"
+    )
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EntitlementSource source;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
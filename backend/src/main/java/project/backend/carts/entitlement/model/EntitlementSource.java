@@ -0,0 +1,6 @@
+package project.backend.carts.entitlement.model;
+
+public enum EntitlementSource {
+    PURCHASE,
+    AUTHOR
+}
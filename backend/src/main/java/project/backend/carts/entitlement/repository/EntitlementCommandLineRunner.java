@@ -0,0 +1,21 @@
+package project.backend.carts.entitlement.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import project.backend.carts.entitlement.service.EntitlementService;
+
+// runs after the seeders, carts and courses they create bypass the services
+@RequiredArgsConstructor
+@Component
+@Order(40)
+public class EntitlementCommandLineRunner implements CommandLineRunner {
+
+    private final EntitlementService entitlementService;
+
+    @Override
+    public void run(String... args) {
+        entitlementService.backfill();
+    }
+}
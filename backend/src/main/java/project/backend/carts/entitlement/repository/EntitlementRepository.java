@@ -0,0 +1,60 @@
+package project.backend.carts.entitlement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import project.backend.carts.entitlement.model.Entitlement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EntitlementRepository extends JpaRepository<Entitlement, Long> {
+
+    @Query("SELECT e.courseId FROM Entitlement e WHERE e.userId = :userId")
+    List<Long> findCourseIdsByUserId(Long userId);
+
+    // every course of the cart in one statement, courses the user already has are skipped
+    @Modifying
+    @Query(value = """
+            INSERT INTO entitlement (id, user_id, course_id, source, created_at)
+            SELECT nextval('entitlement_sequence'), items.user_id, items.course_id, 'PURCHASE', :createdAt
+            FROM (
+                SELECT DISTINCT c.user_id, ci.course_id
+                FROM cart c JOIN cart_item ci ON ci.cart_id = c.id
+                WHERE c.id = :cartId AND c.user_id IS NOT NULL AND ci.course_id IS NOT NULL
+            ) items
+            ON CONFLICT (user_id, course_id) DO NOTHING
+            """, nativeQuery = true)
+    int grantCartCourses(Long cartId, LocalDateTime createdAt);
+
+    /*
+        Backfill of purchases made before entitlements existed.
+        The backfills run once at startup, before any request, so they skip existing rows with NOT EXISTS
+        instead of ON CONFLICT and stay runnable on the H2 database of the integration tests.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO entitlement (id, user_id, course_id, source, created_at)
+            SELECT nextval('entitlement_sequence'), items.user_id, items.course_id, 'PURCHASE', :createdAt
+            FROM (
+                SELECT DISTINCT c.user_id, ci.course_id
+                FROM cart c JOIN cart_item ci ON ci.cart_id = c.id
+                WHERE c.cart_status = 'COMPLETED' AND c.user_id IS NOT NULL AND ci.course_id IS NOT NULL
+            ) items
+            WHERE NOT EXISTS (SELECT 1 FROM entitlement e WHERE e.user_id = items.user_id AND e.course_id = items.course_id)
+            """, nativeQuery = true)
+    int grantCompletedCarts(LocalDateTime createdAt);
+
+    // backfill of courses created before entitlements existed
+    @Modifying
+    @Query(value = """
+            INSERT INTO entitlement (id, user_id, course_id, source, created_at)
+            SELECT nextval('entitlement_sequence'), co.author_id, co.id, 'AUTHOR', :createdAt
+            FROM course co
+            WHERE co.author_id IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM entitlement e WHERE e.user_id = co.author_id AND e.course_id = co.id)
+            """, nativeQuery = true)
+    int grantAuthoredCourses(LocalDateTime createdAt);
+}
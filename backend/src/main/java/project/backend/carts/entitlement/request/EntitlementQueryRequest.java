@@ -0,0 +1,8 @@
+package project.backend.carts.entitlement.request;
+
+import java.util.List;
+
+public record EntitlementQueryRequest(
+        List<Long> courseIds
+) {
+}
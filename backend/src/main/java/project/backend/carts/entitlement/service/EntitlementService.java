@@ -0,0 +1,23 @@
+package project.backend.carts.entitlement.service;
+
+import project.backend.carts.entitlement.dto.EntitlementQueryDTO;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface EntitlementService {
+
+    boolean hasCourse(Long userId, Long courseId);
+
+    EntitlementQueryDTO queryEntitlements(List<Long> courseIds, Principal principal);
+
+    Set<Long> findOwnedCourseIds(Long userId, Collection<Long> courseIds);
+
+    void grantCartCourses(Long cartId, Long userId);
+
+    void grantAuthorship(Long userId, Long courseId);
+
+    void backfill();
+}
@@ -0,0 +1,108 @@
+package project.backend.carts.entitlement.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import project.backend.carts.entitlement.dto.EntitlementQueryDTO;
+import project.backend.carts.entitlement.model.Entitlement;
+import project.backend.carts.entitlement.model.EntitlementSource;
+import project.backend.carts.entitlement.repository.EntitlementRepository;
+import project.backend.exception.types.BadRequestException;
+import project.backend.permission.service.PermissionService;
+import project.backend.transaction.AfterCommit;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntitlementServiceImpl implements EntitlementService {
+    private static final int MAX_QUERY_IDS = 500;
+
+    private final EntitlementRepository entitlementRepository;
+    private final OwnedCourseCache ownedCourseCache;
+    private final UserService userService;
+    private final PermissionService permissionService;
+
+    @Override
+    public boolean hasCourse(Long userId, Long courseId) {
+        return ownedCourseCache.owns(userId, courseId);
+    }
+
+    // anonymous users own nothing, administrators can open every course
+    @Override
+    public EntitlementQueryDTO queryEntitlements(List<Long> courseIds, Principal principal) {
+        if (courseIds == null)
+            throw new BadRequestException("Course ids are required.");
+        if (courseIds.size() > MAX_QUERY_IDS)
+            throw new BadRequestException("At most %d courses can be queried at once.".formatted(MAX_QUERY_IDS));
+        if (courseIds.stream().anyMatch(Objects::isNull))
+            throw new BadRequestException("Course ids must not be null.");
+
+        Set<Long> distinctIds = new LinkedHashSet<>(courseIds);
+        Set<Long> owned;
+        if (principal == null) {
+            owned = Set.of();
+        } else if (permissionService.hasRole(principal, "ROLE_ADMIN")) {
+            owned = distinctIds;
+        } else {
+            owned = findOwnedCourseIds(userService.getUserId(principal), distinctIds);
+        }
+
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long courseId : distinctIds) {
+            result.put(courseId, owned.contains(courseId));
+        }
+        return new EntitlementQueryDTO(result);
+    }
+
+    @Override
+    public Set<Long> findOwnedCourseIds(Long userId, Collection<Long> courseIds) {
+        return ownedCourseCache.ownedAmong(userId, courseIds);
+    }
+
+    @Override
+    @Transactional
+    public void grantCartCourses(Long cartId, Long userId) {
+        if (entitlementRepository.grantCartCourses(cartId, LocalDateTime.now()) > 0) {
+            invalidateAfterCommit(userId);
+        }
+    }
+
+    // the course was just created, nobody can hold it yet, so a plain insert never conflicts
+    @Override
+    @Transactional
+    public void grantAuthorship(Long userId, Long courseId) {
+        entitlementRepository.save(Entitlement.builder()
+                .userId(userId)
+                .courseId(courseId)
+                .source(EntitlementSource.AUTHOR)
+                .createdAt(LocalDateTime.now())
+                .build());
+        invalidateAfterCommit(userId);
+    }
+
+    // idempotent, rows that already exist are skipped
+    @Override
+    @Transactional
+    public void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        int purchased = entitlementRepository.grantCompletedCarts(now);
+        int authored = entitlementRepository.grantAuthoredCourses(now);
+        log.info("Backfilled {} purchased and {} authored course entitlements", purchased, authored);
+    }
+
+    private void invalidateAfterCommit(Long userId) {
+        AfterCommit.run(() -> ownedCourseCache.invalidate(userId));
+    }
+}
@@ -0,0 +1,93 @@
+package project.backend.carts.entitlement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import project.backend.carts.entitlement.repository.EntitlementRepository;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/*
+    Course ids owned by recently active users, one bitmap per user indexed by course id.
+    Course ids come from a sequence and stay small, so a bitmap takes a few words and a check is a single bit test.
+    A bitmap is built once from the entitlement table and never changed, a grant drops it after the grant commits
+    and the next check loads it again. At most maxUsers bitmaps are kept, the least recently active users go first.
+ */
+@Component
+public class OwnedCourseCache {
+
+    private final EntitlementRepository entitlementRepository;
+    private final int maxUsers;
+
+    // guarded by this, access ordered so the least recently active users are evicted first
+    private final LinkedHashMap<Long, BitSet> ownedCourses = new LinkedHashMap<>(16, 0.75f, true);
+    // guarded by this, a bitmap loaded while an invalidation happened may miss the grant and is not cached
+    private long invalidations;
+
+    public OwnedCourseCache(
+            EntitlementRepository entitlementRepository,
+            @Value("${application.entitlements.cache.max-users:100000}") int maxUsers) {
+        this.entitlementRepository = entitlementRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    public boolean owns(Long userId, Long courseId) {
+        if (courseId < 0 || courseId > Integer.MAX_VALUE) {
+            return false;
+        }
+        return getOwned(userId).get(courseId.intValue());
+    }
+
+    public Set<Long> ownedAmong(Long userId, Collection<Long> courseIds) {
+        BitSet owned = getOwned(userId);
+        Set<Long> result = new HashSet<>();
+        for (Long courseId : courseIds) {
+            if (courseId >= 0 && courseId <= Integer.MAX_VALUE && owned.get(courseId.intValue())) {
+                result.add(courseId);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(Long userId) {
+        ownedCourses.remove(userId);
+        invalidations++;
+    }
+
+    private BitSet getOwned(Long userId) {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            BitSet owned = ownedCourses.get(userId);
+            if (owned != null) {
+                return owned;
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+
+        // read outside the lock, so checks of cached users never wait for the table
+        BitSet loaded = load(userId);
+        synchronized (this) {
+            if (invalidations == invalidationsBeforeLoad) {
+                ownedCourses.put(userId, loaded);
+                Iterator<BitSet> eldest = ownedCourses.values().iterator();
+                while (ownedCourses.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private BitSet load(Long userId) {
+        BitSet owned = new BitSet();
+        for (Long courseId : entitlementRepository.findCourseIdsByUserId(userId)) {
+            owned.set(courseId.intValue());
+        }
+        return owned;
+    }
+}
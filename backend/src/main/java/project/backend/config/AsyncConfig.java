@@ -0,0 +1,149 @@
+package project.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${application.web.async.pool-size:8}")
+    private int mvcAsyncPoolSize;
+
+    @Value("${application.web.async.queue-capacity:50}")
+    private int mvcAsyncQueueCapacity;
+
+    @Value("${application.images.variants.pool-size:2}")
+    private int imageVariantPoolSize;
+
+    @Value("${application.images.variants.queue-capacity:100}")
+    private int imageVariantQueueCapacity;
+
+    @Value("${application.files.deduplication.hash-pool-size:2}")
+    private int fileHashPoolSize;
+
+    @Value("${application.files.deduplication.hash-queue-capacity:100}")
+    private int fileHashQueueCapacity;
+
+    @Value("${application.certificates.jobs.pool-size:1}")
+    private int certificateJobPoolSize;
+
+    @Value("${application.certificates.jobs.queue-capacity:10}")
+    private int certificateJobQueueCapacity;
+
+    @Value("${application.certificates.jobs.render-pool-size:4}")
+    private int certificateRenderPoolSize;
+
+    @Value("${application.notifications.outbox.workers:2}")
+    private int notificationDispatchWorkers;
+
+    @Value("${application.notifications.stream.pool-size:2}")
+    private int notificationStreamPoolSize;
+
+    @Value("${application.notifications.stream.queue-capacity:1000}")
+    private int notificationStreamQueueCapacity;
+
+    /*
+        The executors below make Spring Boot skip its applicationTaskExecutor, without this StreamingResponseBody
+        downloads (certificates, bulk certificate zips) would each get a new thread from SimpleAsyncTaskExecutor.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mvcAsyncPoolSize);
+        executor.setMaxPoolSize(mvcAsyncPoolSize);
+        executor.setQueueCapacity(mvcAsyncQueueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // bounded pool and queue - when both are full new work is rejected instead of running on the request thread
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageVariantPoolSize);
+        executor.setMaxPoolSize(imageVariantPoolSize);
+        executor.setQueueCapacity(imageVariantQueueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // hashes completed uploads for DeduplicatingFileService, a rejected upload is simply not deduplicated
+    @Bean(name = "fileHashExecutor")
+    public ThreadPoolTaskExecutor fileHashExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fileHashPoolSize);
+        executor.setMaxPoolSize(fileHashPoolSize);
+        executor.setQueueCapacity(fileHashQueueCapacity);
+        executor.setThreadNamePrefix("file-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // runs bulk certificate jobs, each job fans its rendering out to certificateRenderExecutor
+    @Bean(name = "certificateJobExecutor")
+    public ThreadPoolTaskExecutor certificateJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(certificateJobPoolSize);
+        executor.setMaxPoolSize(certificateJobPoolSize);
+        executor.setQueueCapacity(certificateJobQueueCapacity);
+        executor.setThreadNamePrefix("certificate-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // the queue is not capped here, every job limits how many renders it keeps in flight
+    @Bean(name = "certificateRenderExecutor")
+    public ThreadPoolTaskExecutor certificateRenderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(certificateRenderPoolSize);
+        executor.setMaxPoolSize(certificateRenderPoolSize);
+        executor.setThreadNamePrefix("certificate-render-");
+        executor.initialize();
+        return executor;
+    }
+
+    // one long running drain loop per worker, NotificationOutboxDispatcher never submits more than the pool size
+    @Bean(name = "notificationDispatchExecutor")
+    public ThreadPoolTaskExecutor notificationDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationDispatchWorkers);
+        executor.setMaxPoolSize(notificationDispatchWorkers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("notification-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // writes SSE events, when full the event is dropped and the client catches up from the unread count later
+    @Bean(name = "notificationStreamExecutor")
+    public ThreadPoolTaskExecutor notificationStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationStreamPoolSize);
+        executor.setMaxPoolSize(notificationStreamPoolSize);
+        executor.setQueueCapacity(notificationStreamQueueCapacity);
+        executor.setThreadNamePrefix("notification-stream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package project.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.config.Customizer;
@@ -62,7 +63,9 @@ public class SecurityConfiguration {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req ->
-                        req.requestMatchers(
+                        // streamed responses finish in an async dispatch, the request was authorized on its way in
+                        req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers(
                                         "/api/v1/auth/login",
                                         "/api/v1/auth/register",
                                         "/api/v1/auth/google-login",
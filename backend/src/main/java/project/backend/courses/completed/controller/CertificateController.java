@@ -0,0 +1,20 @@
+package project.backend.courses.completed.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import project.backend.courses.completed.dto.CertificateVerificationDTO;
+import project.backend.courses.completed.service.CompletedCourseService;
+
+@RestController
+@RequestMapping("api/v1/certificates")
+@RequiredArgsConstructor
+public class CertificateController {
+    private final CompletedCourseService completedCourseService;
+
+    @GetMapping("/{certificateId}")
+    public ResponseEntity<CertificateVerificationDTO> verifyCertificate(@PathVariable String certificateId) {
+        return new ResponseEntity<>(completedCourseService.verifyCertificate(certificateId), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,49 @@
+package project.backend.courses.completed.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import project.backend.courses.completed.dto.CertificateJobDTO;
+import project.backend.courses.completed.dto.CertificateJobRequest;
+import project.backend.courses.completed.service.CertificateJobFile;
+import project.backend.courses.completed.service.CertificateJobService;
+
+import java.io.InputStream;
+import java.security.Principal;
+
+@RestController
+@RequestMapping("api/v1/certificates/jobs")
+@RequiredArgsConstructor
+public class CertificateJobController {
+    private final CertificateJobService certificateJobService;
+
+    @PostMapping
+    public ResponseEntity<CertificateJobDTO> startJob(@RequestBody CertificateJobRequest request, Principal principal) {
+        return new ResponseEntity<>(certificateJobService.startJob(request, principal), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<CertificateJobDTO> getJob(@PathVariable String jobId, Principal principal) {
+        return new ResponseEntity<>(certificateJobService.getJob(jobId, principal), HttpStatus.OK);
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadJob(@PathVariable String jobId, Principal principal) {
+        // opened here, so the zip cannot be evicted between this request and the streaming
+        CertificateJobFile file = certificateJobService.openJobFile(jobId, principal);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "certificates-" + jobId + ".zip");
+        headers.setContentLength(file.size());
+        return new ResponseEntity<>(out -> {
+            try (InputStream in = file.content()) {
+                in.transferTo(out);
+            }
+        }, headers, HttpStatus.OK);
+    }
+}
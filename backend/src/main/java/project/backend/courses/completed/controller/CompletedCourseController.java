@@ -5,46 +5,50 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import project.backend.courses.completed.dto.CertificateDTO;
+import project.backend.courses.completed.dto.CompletedCoursePageDTO;
 import project.backend.courses.completed.service.CompletedCourseService;
-import project.backend.courses.course.dto.CourseDTO;
-import project.backend.courses.course.mapper.CourseDTOMapper;
-import project.backend.courses.course.model.Course;
 
 import java.security.Principal;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("api/v1/completed-courses")
 @RequiredArgsConstructor
 public class CompletedCourseController {
     private final CompletedCourseService completedCourseService;
-    private final CourseDTOMapper courseDTOMapper;
 
     @PutMapping("/{courseId}/complete")
     public ResponseEntity<Void> completeCourse(@PathVariable Long courseId, Principal principal) {
-        completedCourseService.completeCourse(courseId, principal);
-        return new ResponseEntity<>(HttpStatus.OK);
+        boolean created = completedCourseService.completeCourse(courseId, principal);
+        return new ResponseEntity<>(created ? HttpStatus.CREATED : HttpStatus.OK);
     }
 
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getCompletedCourses(Principal principal) {
-        List<CourseDTO> completedCourses = completedCourseService.getCompletedCourses(principal).stream()
-                .map(completedCourse -> courseDTOMapper.toDTO(completedCourse.getCourse()))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(completedCourses, HttpStatus.OK);
+    public ResponseEntity<CompletedCoursePageDTO> getCompletedCourses(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Principal principal
+    ) {
+        return new ResponseEntity<>(completedCourseService.getCompletedCourses(cursor, limit, principal), HttpStatus.OK);
+    }
+
+    @GetMapping("/{courseId}")
+    public ResponseEntity<Boolean> hasCompletedCourse(@PathVariable Long courseId, Principal principal) {
+        return new ResponseEntity<>(completedCourseService.hasCompletedCourse(courseId, principal), HttpStatus.OK);
     }
 
     @GetMapping("/{courseId}/certificate")
-    public ResponseEntity<byte[]> downloadCertificate(@PathVariable Long courseId, Principal principal) {
-        byte[] certificate = completedCourseService.generateCertificate(courseId, principal);
-        Course course = completedCourseService.getCourseById(courseId);
-        String fileName = course.getTitle().replaceAll(" ", "_") + "-certificate.pdf";
+    public ResponseEntity<StreamingResponseBody> downloadCertificate(@PathVariable Long courseId, Principal principal) {
+        CertificateDTO certificate = completedCourseService.generateCertificate(courseId, principal);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(org.springframework.http.MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", fileName);
-        return new ResponseEntity<>(certificate, headers, HttpStatus.OK);
+        headers.setContentDispositionFormData("attachment", certificate.fileName());
+        if (certificate.contentLength() != null) {
+            headers.setContentLength(certificate.contentLength());
+        }
+        return new ResponseEntity<>(certificate.content(), headers, HttpStatus.OK);
     }
 
 }
@@ -0,0 +1,10 @@
+package project.backend.courses.completed.dto;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public record CertificateDTO(
+        String fileName,
+        Long contentLength,
+        StreamingResponseBody content
+) {
+}
@@ -0,0 +1,12 @@
+package project.backend.courses.completed.dto;
+
+import project.backend.courses.completed.model.CertificateJobStatus;
+
+public record CertificateJobDTO(
+        String id,
+        Long courseId,
+        CertificateJobStatus status,
+        int total,
+        int completed
+) {
+}
@@ -0,0 +1,10 @@
+package project.backend.courses.completed.dto;
+
+import java.time.LocalDate;
+
+public record CertificateJobRequest(
+        Long courseId,
+        LocalDate completedFrom,
+        LocalDate completedTo
+) {
+}
@@ -0,0 +1,11 @@
+package project.backend.courses.completed.dto;
+
+import java.time.LocalDateTime;
+
+public record CertificateRecipient(
+        Long userId,
+        String firstName,
+        String lastName,
+        LocalDateTime completedAt
+) {
+}
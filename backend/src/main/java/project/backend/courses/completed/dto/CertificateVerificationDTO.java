@@ -0,0 +1,11 @@
+package project.backend.courses.completed.dto;
+
+import java.time.LocalDateTime;
+
+public record CertificateVerificationDTO(
+        String firstName,
+        String lastName,
+        String courseTitle,
+        LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,10 @@
+package project.backend.courses.completed.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record CompletedCoursePageDTO(
+        List<CompletedCourseSummaryDTO> items,
+        Long nextCursor
+) {
+}
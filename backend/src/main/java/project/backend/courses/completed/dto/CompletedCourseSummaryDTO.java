@@ -0,0 +1,14 @@
+package project.backend.courses.completed.dto;
+
+import java.time.LocalDateTime;
+
+// id, title, rating and imageUrl are the course's, so the client can render it like any course miniature
+public record CompletedCourseSummaryDTO(
+        Long id,
+        String title,
+        double rating,
+        String imageUrl,
+        Long completionId,
+        LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,8 @@
+package project.backend.courses.completed.model;
+
+public enum CertificateJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
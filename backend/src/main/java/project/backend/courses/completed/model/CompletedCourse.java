@@ -5,12 +5,18 @@ import lombok.*;
 import project.backend.courses.course.model.Course;
 import project.backend.user.User;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "completed_course_user_course_key", columnNames = {"user_id", "course_id"}),
+        indexes = @Index(name = "completed_course_user_id_idx", columnList = "user_id, id")
+)
 public class CompletedCourse {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,4 +29,6 @@ public class CompletedCourse {
     @ManyToOne
     @JoinColumn(name = "course_id")
     private Course course;
+
+    private LocalDateTime completedAt;
 }
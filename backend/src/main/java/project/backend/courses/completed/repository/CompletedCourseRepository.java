@@ -1,13 +1,55 @@
 package project.backend.courses.completed.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import project.backend.courses.completed.dto.CertificateRecipient;
+import project.backend.courses.completed.dto.CertificateVerificationDTO;
+import project.backend.courses.completed.dto.CompletedCourseSummaryDTO;
 import project.backend.courses.completed.model.CompletedCourse;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CompletedCourseRepository extends JpaRepository<CompletedCourse, Long> {
-    List<CompletedCourse> findByUserId(Long userId);
     boolean existsByUserIdAndCourseId(Long userId, Long courseId);
+    Optional<CompletedCourse> findByUserIdAndCourseId(Long userId, Long courseId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO completed_course (user_id, course_id, completed_at)
+            VALUES (:userId, :courseId, :completedAt)
+            ON CONFLICT (user_id, course_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(Long userId, Long courseId, LocalDateTime completedAt);
+
+    // keyset paging, newest completions first
+    @Query("""
+            SELECT new project.backend.courses.completed.dto.CompletedCourseSummaryDTO(c.id, c.title, c.rating, c.imageUrl, cc.id, cc.completedAt)
+            FROM CompletedCourse cc JOIN cc.course c
+            WHERE cc.user.id = :userId AND cc.id < :cursor
+            ORDER BY cc.id DESC
+            """)
+    List<CompletedCourseSummaryDTO> findSummaries(Long userId, Long cursor, Limit limit);
+
+    @Query("""
+            SELECT new project.backend.courses.completed.dto.CertificateRecipient(u.id, u.firstName, u.lastName, cc.completedAt)
+            FROM CompletedCourse cc JOIN cc.user u
+            WHERE cc.course.id = :courseId
+            AND (cast(:from as localdatetime) IS NULL OR cc.completedAt >= :from)
+            AND (cast(:to as localdatetime) IS NULL OR cc.completedAt < :to)
+            ORDER BY cc.id
+            """)
+    List<CertificateRecipient> findCertificateRecipients(Long courseId, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            SELECT new project.backend.courses.completed.dto.CertificateVerificationDTO(u.firstName, u.lastName, c.title, cc.completedAt)
+            FROM CompletedCourse cc JOIN cc.user u JOIN cc.course c
+            WHERE u.id = :userId AND c.id = :courseId
+            """)
+    Optional<CertificateVerificationDTO> findCertificateVerification(Long userId, Long courseId);
 }
@@ -0,0 +1,238 @@
+package project.backend.courses.completed.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/*
+    Rendered certificates per (user, course). Recently used PDFs are kept in memory up to a byte budget,
+    older ones are spilled to disk up to a maximum number of files and dropped after that.
+    Every entry carries a fingerprint of the stamped fields, so renaming a user or a course
+    simply makes the cached PDF miss.
+ */
+@Component
+public class CertificateCache {
+    private static final String SPILL_FILE_GLOB = "*-*-*.pdf";
+
+    private final long maxMemoryBytes;
+    private final int maxDiskEntries;
+    private final Path spillDirectory;
+
+    private final LinkedHashMap<Key, MemoryEntry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, DiskEntry> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    public CertificateCache(
+            @Value("${application.certificates.cache.max-memory-bytes:33554432}") long maxMemoryBytes,
+            @Value("${application.certificates.cache.max-disk-entries:10000}") int maxDiskEntries,
+            @Value("${application.certificates.cache.spill-directory:${java.io.tmpdir}/elearning-certificates}") Path spillDirectory) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskEntries = maxDiskEntries;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @PostConstruct
+    void clearSpillDirectory() {
+        // the index lives in memory only, files spilled by a previous run can never be hit again;
+        // the directory is configurable, so only the spill files are removed, anything else in it is left alone
+        try {
+            Files.createDirectories(spillDirectory);
+            try (DirectoryStream<Path> spilled = Files.newDirectoryStream(spillDirectory, SPILL_FILE_GLOB)) {
+                for (Path file : spilled) {
+                    if (Files.isRegularFile(file)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<byte[]> get(Long userId, Long courseId, String fingerprint) {
+        Key key = new Key(userId, courseId);
+        DiskEntry diskEntry;
+        synchronized (this) {
+            MemoryEntry memoryEntry = memory.get(key);
+            if (memoryEntry != null) {
+                if (memoryEntry.fingerprint().equals(fingerprint)) {
+                    return Optional.of(memoryEntry.content());
+                }
+                // rendered before a rename, dropped so the certificate rendered now can take its place
+                memory.remove(key);
+                memoryBytes -= memoryEntry.content().length;
+                return Optional.empty();
+            }
+            diskEntry = disk.get(key);
+            if (diskEntry != null && !diskEntry.fingerprint().equals(fingerprint)) {
+                disk.remove(key);
+            }
+        }
+        if (diskEntry == null) {
+            return Optional.empty();
+        }
+        if (!diskEntry.fingerprint().equals(fingerprint)) {
+            delete(diskEntry);
+            return Optional.empty();
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(diskEntry.path());
+            put(userId, courseId, fingerprint, content);
+            return Optional.of(content);
+        } catch (IOException e) {
+            // evicted from disk in the meantime
+            return Optional.empty();
+        }
+    }
+
+    public void put(Long userId, Long courseId, String fingerprint, byte[] content) {
+        Key key = new Key(userId, courseId);
+        List<Map.Entry<Key, MemoryEntry>> toSpill = new ArrayList<>();
+        List<DiskEntry> toDelete = new ArrayList<>();
+
+        synchronized (this) {
+            DiskEntry spilled = disk.remove(key);
+            if (spilled != null) {
+                toDelete.add(spilled);
+            }
+            MemoryEntry previous = memory.put(key, new MemoryEntry(fingerprint, content));
+            if (previous != null) {
+                memoryBytes -= previous.content().length;
+            }
+            memoryBytes += content.length;
+
+            Iterator<Map.Entry<Key, MemoryEntry>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                Map.Entry<Key, MemoryEntry> entry = eldest.next();
+                eldest.remove();
+                memoryBytes -= entry.getValue().content().length;
+                toSpill.add(entry);
+            }
+        }
+
+        // file IO happens outside of the lock, a concurrent get just misses and renders again
+        toDelete.forEach(this::delete);
+        toSpill.forEach(entry -> spill(entry.getKey(), entry.getValue()));
+    }
+
+    /*
+        Used on a miss: the renderer writes straight to the given stream while a copy goes to a spill file,
+        so a fresh certificate is never buffered on the heap. It is promoted to memory on the next download.
+     */
+    public void writeThrough(Long userId, Long courseId, String fingerprint, OutputStream out, Consumer<OutputStream> renderer) throws IOException {
+        Key key = new Key(userId, courseId);
+        Path path = spillPath(key);
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(path))) {
+            renderer.accept(new TeeOutputStream(out, file));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        register(key, new DiskEntry(fingerprint, path), true);
+    }
+
+    private void spill(Key key, MemoryEntry entry) {
+        Path path = spillPath(key);
+        try {
+            Files.write(path, entry.content());
+        } catch (IOException e) {
+            return;
+        }
+        register(key, new DiskEntry(entry.fingerprint(), path), false);
+    }
+
+    /*
+        rendered: the file was just rendered for the current fingerprint, so a memory copy with another fingerprint is stale.
+        Otherwise the file is a spilled copy, and a memory copy put while it was being written is newer whatever its fingerprint.
+     */
+    private void register(Key key, DiskEntry entry, boolean rendered) {
+        List<DiskEntry> toDelete = new ArrayList<>();
+        synchronized (this) {
+            MemoryEntry inMemory = memory.get(key);
+            if (inMemory != null && (!rendered || inMemory.fingerprint().equals(entry.fingerprint()))) {
+                toDelete.add(entry);
+            } else {
+                if (inMemory != null) {
+                    memory.remove(key);
+                    memoryBytes -= inMemory.content().length;
+                }
+                DiskEntry previous = disk.put(key, entry);
+                if (previous != null) {
+                    toDelete.add(previous);
+                }
+                Iterator<DiskEntry> eldest = disk.values().iterator();
+                while (disk.size() > maxDiskEntries && eldest.hasNext()) {
+                    toDelete.add(eldest.next());
+                    eldest.remove();
+                }
+            }
+        }
+        toDelete.forEach(this::delete);
+    }
+
+    private Path spillPath(Key key) {
+        return spillDirectory.resolve(key.userId() + "-" + key.courseId() + "-" + UUID.randomUUID() + ".pdf");
+    }
+
+    private void delete(DiskEntry entry) {
+        try {
+            Files.deleteIfExists(entry.path());
+        } catch (IOException ignored) {
+            // left for the next startup cleanup
+        }
+    }
+
+    // closing only flushes, the response stream is owned by the servlet container
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private record Key(Long userId, Long courseId) {
+    }
+
+    private record MemoryEntry(String fingerprint, byte[] content) {
+    }
+
+    private record DiskEntry(String fingerprint, Path path) {
+    }
+}
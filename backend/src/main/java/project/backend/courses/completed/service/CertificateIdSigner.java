@@ -0,0 +1,114 @@
+package project.backend.courses.completed.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/*
+    Certificate ids are base64url(varint userId, varint courseId, varint completedAt epoch second, truncated HMAC-SHA256).
+    They are verified without touching the database, so forged or mistyped ids are rejected before any lookup.
+ */
+@Component
+public class CertificateIdSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 12;
+    private static final int MAX_ID_LENGTH = 64;
+
+    private final ThreadLocal<Mac> mac;
+
+    public CertificateIdSigner(
+            @Value("${application.certificates.signing-key:${application.security.jwt.secret-key}}") String signingKey) {
+        SecretKeySpec key = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        // Mac instances are not thread safe, creating one per call costs more than the signature itself
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public String sign(Long userId, Long courseId, LocalDateTime completedAt) {
+        byte[] buffer = new byte[3 * 10 + MAC_LENGTH];
+        int length = writeVarLong(buffer, 0, userId);
+        length = writeVarLong(buffer, length, courseId);
+        length = writeVarLong(buffer, length, toEpochSecond(completedAt));
+        System.arraycopy(mac(buffer, length), 0, buffer, length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(buffer, length + MAC_LENGTH));
+    }
+
+    public Optional<CertificateId> verify(String id) {
+        if (id == null || id.length() > MAX_ID_LENGTH) {
+            return Optional.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        long[] values = new long[3];
+        int position = 0;
+        for (int i = 0; i < values.length; i++) {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (position >= bytes.length || shift > 56) {
+                    return Optional.empty();
+                }
+                current = bytes[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            values[i] = value;
+        }
+
+        if (bytes.length - position != MAC_LENGTH) {
+            return Optional.empty();
+        }
+        byte[] expected = Arrays.copyOf(mac(bytes, position), MAC_LENGTH);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, position, bytes.length))) {
+            return Optional.empty();
+        }
+        return Optional.of(new CertificateId(values[0], values[1], values[2]));
+    }
+
+    // completedAt is compared with second precision, the id does not carry sub-second parts
+    public static long toEpochSecond(LocalDateTime completedAt) {
+        return completedAt == null ? 0 : completedAt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private byte[] mac(byte[] payload, int length) {
+        Mac instance = mac.get();
+        instance.update(payload, 0, length);
+        return instance.doFinal();
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    public record CertificateId(long userId, long courseId, long completedAtEpochSecond) {
+    }
+}
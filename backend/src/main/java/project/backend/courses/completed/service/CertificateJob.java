@@ -0,0 +1,80 @@
+package project.backend.courses.completed.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import project.backend.courses.completed.dto.CertificateJobDTO;
+import project.backend.courses.completed.model.CertificateJobStatus;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// in-memory state of a bulk certificate job, updated by the job thread and polled through the status endpoint
+@Getter
+class CertificateJob {
+    private final String id;
+    private final Long courseId;
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile CertificateJobStatus status = CertificateJobStatus.QUEUED;
+    private volatile int total;
+    private volatile Path file;
+    private volatile Instant finishedAt;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger openDownloads = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private volatile boolean evicted;
+
+    CertificateJob(String id, Long courseId) {
+        this.id = id;
+        this.courseId = courseId;
+    }
+
+    void start(int total) {
+        this.total = total;
+        this.status = CertificateJobStatus.RUNNING;
+    }
+
+    void complete(Path file) {
+        this.file = file;
+        this.finishedAt = Instant.now();
+        this.status = CertificateJobStatus.COMPLETED;
+    }
+
+    void fail() {
+        this.finishedAt = Instant.now();
+        this.status = CertificateJobStatus.FAILED;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    /*
+        The file of an evicted job is deleted by whoever comes last: the eviction when no download is open,
+        otherwise the release of the last download. Both sides set their flag before reading the other one,
+        so at least one of them sees the file is no longer needed.
+     */
+    boolean openDownload() {
+        openDownloads.incrementAndGet();
+        if (evicted) {
+            closeDownload();
+            return false;
+        }
+        return true;
+    }
+
+    // true when the file can be deleted now
+    boolean closeDownload() {
+        return openDownloads.decrementAndGet() == 0 && evicted;
+    }
+
+    // true when the file can be deleted now
+    boolean evict() {
+        evicted = true;
+        return openDownloads.get() == 0;
+    }
+
+    CertificateJobDTO toDTO() {
+        return new CertificateJobDTO(id, courseId, status, total, completed.get());
+    }
+}
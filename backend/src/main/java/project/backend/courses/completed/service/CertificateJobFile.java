@@ -0,0 +1,7 @@
+package project.backend.courses.completed.service;
+
+import java.io.InputStream;
+
+// an opened job zip, the file outlives an eviction of its job until this stream is closed
+public record CertificateJobFile(long size, InputStream content) {
+}
@@ -0,0 +1,232 @@
+package project.backend.courses.completed.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import project.backend.courses.completed.dto.CertificateJobDTO;
+import project.backend.courses.completed.dto.CertificateJobRequest;
+import project.backend.courses.completed.dto.CertificateRecipient;
+import project.backend.courses.completed.model.CertificateJobStatus;
+import project.backend.courses.completed.repository.CompletedCourseRepository;
+import project.backend.courses.course.model.Course;
+import project.backend.courses.course.repository.CourseRepository;
+import project.backend.exception.types.ConflictException;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.permission.service.PermissionService;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+    Bulk certificate export for a course. Certificates are rendered in parallel on the bounded render pool
+    and written to a zip file on disk in completion order. At most renderWindow certificates are in flight
+    per job, so memory stays flat whatever the cohort size.
+ */
+@Slf4j
+@Service
+public class CertificateJobService {
+
+    private final CompletedCourseRepository completedCourseRepository;
+    private final CourseRepository courseRepository;
+    private final PermissionService permissionService;
+    private final CertificateTemplate certificateTemplate;
+    private final CertificateIdSigner certificateIdSigner;
+    private final TaskExecutor jobExecutor;
+    private final ThreadPoolTaskExecutor renderExecutor;
+    private final int maxRetainedJobs;
+
+    private final Map<String, CertificateJob> jobs = new ConcurrentHashMap<>();
+
+    public CertificateJobService(
+            CompletedCourseRepository completedCourseRepository,
+            CourseRepository courseRepository,
+            PermissionService permissionService,
+            CertificateTemplate certificateTemplate,
+            CertificateIdSigner certificateIdSigner,
+            @Qualifier("certificateJobExecutor") TaskExecutor jobExecutor,
+            @Qualifier("certificateRenderExecutor") ThreadPoolTaskExecutor renderExecutor,
+            @Value("${application.certificates.jobs.max-retained:20}") int maxRetainedJobs) {
+        this.completedCourseRepository = completedCourseRepository;
+        this.courseRepository = courseRepository;
+        this.permissionService = permissionService;
+        this.certificateTemplate = certificateTemplate;
+        this.certificateIdSigner = certificateIdSigner;
+        this.jobExecutor = jobExecutor;
+        this.renderExecutor = renderExecutor;
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+
+    public CertificateJobDTO startJob(CertificateJobRequest request, Principal principal) {
+        checkAdmin(principal);
+        Course course = courseRepository.findById(request.courseId())
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + request.courseId()));
+        // the range is inclusive on both days
+        LocalDateTime from = request.completedFrom() == null ? null : request.completedFrom().atStartOfDay();
+        LocalDateTime to = request.completedTo() == null ? null : request.completedTo().plusDays(1).atStartOfDay();
+
+        evictFinishedJobs();
+        CertificateJob job = new CertificateJob(UUID.randomUUID().toString(), course.getId());
+        jobs.put(job.getId(), job);
+        try {
+            jobExecutor.execute(() -> run(job, course.getTitle(), from, to));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new ConflictException("Too many certificate jobs in progress, try again later.");
+        }
+        return job.toDTO();
+    }
+
+    public CertificateJobDTO getJob(String jobId, Principal principal) {
+        checkAdmin(principal);
+        return findJob(jobId).toDTO();
+    }
+
+    // the caller must close the stream, an evicted job keeps its file until then
+    public CertificateJobFile openJobFile(String jobId, Principal principal) {
+        checkAdmin(principal);
+        CertificateJob job = findJob(jobId);
+        if (job.getStatus() != CertificateJobStatus.COMPLETED) {
+            throw new ConflictException("Certificate job is not completed.");
+        }
+        if (!job.openDownload()) {
+            throw new ResourceNotFoundException("Certificate job not found with id " + jobId);
+        }
+        try {
+            InputStream content = new FilterInputStream(Files.newInputStream(job.getFile())) {
+                private final AtomicBoolean closed = new AtomicBoolean();
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (closed.compareAndSet(false, true)) {
+                            closeDownload(job);
+                        }
+                    }
+                }
+            };
+            return new CertificateJobFile(Files.size(job.getFile()), content);
+        } catch (IOException e) {
+            closeDownload(job);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run(CertificateJob job, String courseTitle, LocalDateTime from, LocalDateTime to) {
+        Path file = null;
+        try {
+            List<CertificateRecipient> recipients = completedCourseRepository.findCertificateRecipients(job.getCourseId(), from, to);
+            job.start(recipients.size());
+
+            file = Files.createTempFile("certificates-" + job.getId(), ".zip");
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                writeCertificates(job, courseTitle, recipients, zip);
+            }
+            job.complete(file);
+        } catch (Exception e) {
+            log.error("Certificate job {} for course {} failed", job.getId(), job.getCourseId(), e);
+            deleteFile(file);
+            job.fail();
+        }
+    }
+
+    private void writeCertificates(CertificateJob job, String courseTitle, List<CertificateRecipient> recipients, ZipOutputStream zip)
+            throws IOException, InterruptedException, ExecutionException {
+        CompletionService<RenderedCertificate> completionService = new ExecutorCompletionService<>(renderExecutor);
+        int renderWindow = renderExecutor.getMaxPoolSize() * 2;
+        int submitted = 0;
+
+        for (int written = 0; written < recipients.size(); written++) {
+            while (submitted < recipients.size() && submitted - written < renderWindow) {
+                CertificateRecipient recipient = recipients.get(submitted++);
+                completionService.submit(() -> render(recipient, job.getCourseId(), courseTitle));
+            }
+            RenderedCertificate certificate = completionService.take().get();
+            zip.putNextEntry(new ZipEntry(certificate.fileName()));
+            zip.write(certificate.content());
+            zip.closeEntry();
+            job.getCompleted().incrementAndGet();
+        }
+    }
+
+    private RenderedCertificate render(CertificateRecipient recipient, Long courseId, String courseTitle) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String certificateId = certificateIdSigner.sign(recipient.userId(), courseId, recipient.completedAt());
+        certificateTemplate.render(recipient.firstName() + " " + recipient.lastName(), courseTitle, certificateId, out);
+        // user id keeps entries unique when two learners share a name
+        String fileName = (recipient.lastName() + "_" + recipient.firstName()).replaceAll("[\\s/\\\\]+", "_")
+                + "-" + recipient.userId() + ".pdf";
+        return new RenderedCertificate(fileName, out.toByteArray());
+    }
+
+    private void evictFinishedJobs() {
+        List<CertificateJob> finished = jobs.values().stream()
+                .filter(CertificateJob::isFinished)
+                .sorted(Comparator.comparing(CertificateJob::getFinishedAt))
+                .toList();
+        int toEvict = jobs.size() - maxRetainedJobs + 1;
+        for (int i = 0; i < toEvict && i < finished.size(); i++) {
+            CertificateJob job = finished.get(i);
+            jobs.remove(job.getId());
+            if (job.evict()) {
+                deleteFile(job.getFile());
+            }
+        }
+    }
+
+    private void closeDownload(CertificateJob job) {
+        if (job.closeDownload()) {
+            deleteFile(job.getFile());
+        }
+    }
+
+    private void deleteFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete certificate job file {}", file, e);
+        }
+    }
+
+    private CertificateJob findJob(String jobId) {
+        CertificateJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Certificate job not found with id " + jobId);
+        }
+        return job;
+    }
+
+    private void checkAdmin(Principal principal) {
+        if (!permissionService.hasRole(principal, "ROLE_ADMIN")) {
+            throw new ForbiddenException("Only administrators can export certificates.");
+        }
+    }
+
+    private record RenderedCertificate(String fileName, byte[] content) {
+    }
+}
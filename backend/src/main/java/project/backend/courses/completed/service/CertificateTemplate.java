@@ -0,0 +1,107 @@
+package project.backend.courses.completed.service;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfStamper;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.draw.LineSeparator;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+
+/*
+    The static part of the certificate (texts, separator, fonts) is laid out once at startup.
+    Rendering a certificate only stamps the learner name and course title into the reserved boxes,
+    so no layout runs and no fonts are created per download.
+ */
+@Component
+public class CertificateTemplate {
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 30, Font.BOLD);
+    private static final Font SUBTITLE_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 20, Font.BOLD);
+    private static final Font BODY_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 16, Font.NORMAL);
+    private static final Font ID_FONT = new Font(Font.FontFamily.COURIER, 9, Font.NORMAL);
+
+    private final byte[] template;
+    private final Field nameField;
+    private final Field courseField;
+    private final Field idField;
+
+    public CertificateTemplate() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            document.open();
+
+            document.add(centered("Certificate of Completion", TITLE_FONT, 50));
+            document.add(centered("This is to certify that", SUBTITLE_FONT, 30));
+
+            nameField = reserve(document, writer, SUBTITLE_FONT, 1, 30);
+
+            document.add(centered("has successfully completed the course", BODY_FONT, 20));
+
+            // long course titles may wrap, so two lines are reserved
+            courseField = reserve(document, writer, BODY_FONT, 2, 50);
+
+            LineSeparator separator = new LineSeparator();
+            separator.setLineColor(BaseColor.BLACK);
+            separator.setPercentage(80);
+            separator.setAlignment(Element.ALIGN_CENTER);
+            document.add(separator);
+
+            Paragraph footer = centered("Congratulations!", SUBTITLE_FONT, 80);
+            footer.setSpacingBefore(50);
+            document.add(footer);
+
+            idField = reserve(document, writer, ID_FONT, 1, 0);
+            document.close();
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Error building certificate template", e);
+        }
+        template = out.toByteArray();
+    }
+
+    public void render(String fullName, String courseTitle, String certificateId, OutputStream out) {
+        try {
+            PdfStamper stamper = new PdfStamper(new PdfReader(template), out);
+            stamper.getWriter().setCloseStream(false);
+            PdfContentByte canvas = stamper.getOverContent(1);
+            nameField.stamp(canvas, fullName, SUBTITLE_FONT);
+            courseField.stamp(canvas, courseTitle, BODY_FONT);
+            idField.stamp(canvas, "Certificate ID: " + certificateId, ID_FONT);
+            stamper.close();
+        } catch (DocumentException | IOException e) {
+            throw new RuntimeException("Error generating PDF", e);
+        }
+    }
+
+    private static Paragraph centered(String text, Font font, float spacingAfter) {
+        Paragraph paragraph = new Paragraph(text, font);
+        paragraph.setAlignment(Element.ALIGN_CENTER);
+        paragraph.setSpacingAfter(spacingAfter);
+        return paragraph;
+    }
+
+    // adds blank lines in place of the dynamic text and remembers where they ended up on the page
+    private static Field reserve(Document document, PdfWriter writer, Font font, int lines, float spacingAfter) throws DocumentException {
+        float top = writer.getVerticalPosition(false);
+        Paragraph placeholder = centered(String.join("\n", Collections.nCopies(lines, " ")), font, spacingAfter);
+        document.add(placeholder);
+        float leading = placeholder.getTotalLeading();
+        return new Field(document.left(), top - leading * lines, document.right(), top, leading);
+    }
+
+    private record Field(float llx, float lly, float urx, float ury, float leading) {
+        void stamp(PdfContentByte canvas, String text, Font font) throws DocumentException {
+            ColumnText column = new ColumnText(canvas);
+            column.setSimpleColumn(new Phrase(text, font), llx, lly, urx, ury, leading, Element.ALIGN_CENTER);
+            column.go();
+        }
+    }
+}
@@ -1,122 +1,105 @@
 package project.backend.courses.completed.service;
 
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.PdfWriter;
-import com.itextpdf.text.pdf.draw.LineSeparator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.backend.courses.completed.dto.CertificateDTO;
+import project.backend.courses.completed.dto.CertificateVerificationDTO;
+import project.backend.courses.completed.dto.CompletedCoursePageDTO;
+import project.backend.courses.completed.dto.CompletedCourseSummaryDTO;
 import project.backend.courses.completed.model.CompletedCourse;
 import project.backend.courses.completed.repository.CompletedCourseRepository;
 import project.backend.courses.course.model.Course;
 import project.backend.courses.course.repository.CourseRepository;
+import project.backend.exception.types.BadRequestException;
 import project.backend.exception.types.ForbiddenException;
 import project.backend.exception.types.ResourceNotFoundException;
 import project.backend.user.User;
 import project.backend.user.UserService;
 
-import java.io.ByteArrayOutputStream;
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CompletedCourseService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CompletedCourseRepository completedCourseRepository;
     private final UserService userService;
     private final CourseRepository courseRepository;
+    private final CertificateTemplate certificateTemplate;
+    private final CertificateCache certificateCache;
+    private final CertificateIdSigner certificateIdSigner;
 
     @Transactional
-    public void completeCourse(Long courseId, Principal principal) {
-        User user = userService.getUserByEmail(principal.getName());
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + courseId));
+    public boolean completeCourse(Long courseId, Principal principal) {
+        return completeCourse(userService.getUserId(principal), courseId);
+    }
 
-        if (completedCourseRepository.existsByUserIdAndCourseId(user.getId(), courseId)) {
-            throw new ForbiddenException("Course already completed.");
+    // idempotent, returns false when the course was already completed
+    @Transactional
+    public boolean completeCourse(Long userId, Long courseId) {
+        try {
+            return completedCourseRepository.insertIfAbsent(userId, courseId, LocalDateTime.now()) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // the only foreign keys are the user, which comes from the token, and the course
+            throw new ResourceNotFoundException("Course not found with id " + courseId);
         }
+    }
 
-        CompletedCourse completedCourse = CompletedCourse.builder()
-                .user(user)
-                .course(course)
-                .build();
+    public CompletedCoursePageDTO getCompletedCourses(Long cursor, int limit, Principal principal) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and %d.".formatted(MAX_PAGE_SIZE));
+        }
+        List<CompletedCourseSummaryDTO> items = completedCourseRepository.findSummaries(
+                userService.getUserId(principal), cursor == null ? Long.MAX_VALUE : cursor, Limit.of(limit));
 
-        completedCourseRepository.save(completedCourse);
+        Long nextCursor = items.size() < limit ? null : items.get(items.size() - 1).completionId();
+        return new CompletedCoursePageDTO(items, nextCursor);
     }
 
-    public List<CompletedCourse> getCompletedCourses(Principal principal) {
-        User user = userService.getUserByEmail(principal.getName());
-        return completedCourseRepository.findByUserId(user.getId());
+    public boolean hasCompletedCourse(Long courseId, Principal principal) {
+        return completedCourseRepository.existsByUserIdAndCourseId(userService.getUserId(principal), courseId);
     }
 
-    public byte[] generateCertificate(Long courseId, Principal principal) {
+    public CertificateDTO generateCertificate(Long courseId, Principal principal) {
         User user = userService.getUserByEmail(principal.getName());
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + courseId));
 
-        boolean hasCompleted = completedCourseRepository.existsByUserIdAndCourseId(user.getId(), courseId);
-        if (!hasCompleted) {
-            throw new ForbiddenException("You have not completed this course.");
+        CompletedCourse completedCourse = completedCourseRepository.findByUserIdAndCourseId(user.getId(), courseId)
+                .orElseThrow(() -> new ForbiddenException("You have not completed this course."));
+
+        Long userId = user.getId();
+        String fullName = user.getFirstName() + " " + user.getLastName();
+        String courseTitle = course.getTitle();
+        String certificateId = certificateIdSigner.sign(userId, courseId, completedCourse.getCompletedAt());
+        String fileName = courseTitle.replaceAll(" ", "_") + "-certificate.pdf";
+        String fingerprint = fullName + "\u0000" + courseTitle + "\u0000" + certificateId;
+
+        // the body runs after this method returned, so it only captures plain values
+        Optional<byte[]> cached = certificateCache.get(userId, courseId, fingerprint);
+        if (cached.isPresent()) {
+            byte[] content = cached.get();
+            return new CertificateDTO(fileName, (long) content.length, out -> out.write(content));
         }
-
-        return createPdfCertificate(user, course);
+        return new CertificateDTO(fileName, null, out -> certificateCache.writeThrough(userId, courseId, fingerprint, out,
+                stream -> certificateTemplate.render(fullName, courseTitle, certificateId, stream)));
     }
 
-    private byte[] createPdfCertificate(User user, Course course) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try {
-            Document document = new Document();
-            PdfWriter.getInstance(document, out);
-            document.open();
-            Font titleFont = new Font(Font.FontFamily.TIMES_ROMAN, 30, Font.BOLD);
-            Font subTitleFont = new Font(Font.FontFamily.TIMES_ROMAN, 20, Font.BOLD);
-            Font bodyFont = new Font(Font.FontFamily.TIMES_ROMAN, 16, Font.NORMAL);
-            Paragraph title = new Paragraph("Certificate of Completion", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(50);
-            document.add(title);
-
-            Paragraph subTitle = new Paragraph("This is to certify that", subTitleFont);
-            subTitle.setAlignment(Element.ALIGN_CENTER);
-            subTitle.setSpacingAfter(30);
-            document.add(subTitle);
-
-            Paragraph name = new Paragraph(user.getFirstName() + " " + user.getLastName(), subTitleFont);
-            name.setAlignment(Element.ALIGN_CENTER);
-            name.setSpacingAfter(30);
-            document.add(name);
-
-            Paragraph courseTitle = new Paragraph("has successfully completed the course", bodyFont);
-            courseTitle.setAlignment(Element.ALIGN_CENTER);
-            courseTitle.setSpacingAfter(20);
-            document.add(courseTitle);
-
-            Paragraph courseName = new Paragraph(course.getTitle(), bodyFont);
-            courseName.setAlignment(Element.ALIGN_CENTER);
-            courseName.setSpacingAfter(50);
-            document.add(courseName);
-
-            LineSeparator separator = new LineSeparator();
-            separator.setLineColor(BaseColor.BLACK);
-            separator.setPercentage(80);
-            separator.setAlignment(Element.ALIGN_CENTER);
-            document.add(separator);
-
-            Paragraph footer = new Paragraph("Congratulations!", subTitleFont);
-            footer.setAlignment(Element.ALIGN_CENTER);
-            footer.setSpacingBefore(50);
-            document.add(footer);
-            document.close();
-        } catch (DocumentException e) {
-            throw new RuntimeException("Error generating PDF", e);
-        }
-
-        return out.toByteArray();
-    }
+    // public check for employers: the signature is verified in memory, valid ids cost a single indexed lookup
+    public CertificateVerificationDTO verifyCertificate(String certificateId) {
+        CertificateIdSigner.CertificateId id = certificateIdSigner.verify(certificateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Certificate not found."));
 
-    public Course getCourseById(Long courseId) {
-        return courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + courseId));
+        return completedCourseRepository.findCertificateVerification(id.userId(), id.courseId())
+                .filter(certificate -> CertificateIdSigner.toEpochSecond(certificate.completedAt()) == id.completedAtEpochSecond())
+                .orElseThrow(() -> new ResourceNotFoundException("Certificate not found."));
     }
 
 }
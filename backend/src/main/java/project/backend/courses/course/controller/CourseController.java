@@ -43,7 +43,9 @@ public interface CourseController {
             @RequestParam(required = false) CourseState courseState,
             Principal principal);
 
-    ResponseEntity<FileResponse> getSignedUrlForImageUpload(Long courseId);
+    ResponseEntity<FileResponse> getSignedUrlForImageUpload(Long courseId, Principal principal);
+
+    ResponseEntity<Void> completeImageUpload(Long courseId, Principal principal);
 
     ResponseEntity<Void> deleteCourseImage(Long courseId);
 }
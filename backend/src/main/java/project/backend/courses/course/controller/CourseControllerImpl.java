@@ -91,11 +91,18 @@ public class CourseControllerImpl implements CourseController {
 
     @Override
     @GetMapping("/{courseId}/image")
-    public ResponseEntity<FileResponse> getSignedUrlForImageUpload(@PathVariable("courseId") Long courseId) {
-        FileResponse response = new FileResponse(courseService.getSignedUrlForImageUpload(courseId));
+    public ResponseEntity<FileResponse> getSignedUrlForImageUpload(@PathVariable("courseId") Long courseId, Principal principal) {
+        FileResponse response = new FileResponse(courseService.getSignedUrlForImageUpload(courseId, principal));
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @Override
+    @PostMapping("/{courseId}/image/complete")
+    public ResponseEntity<Void> completeImageUpload(@PathVariable("courseId") Long courseId, Principal principal) {
+        courseService.completeImageUpload(courseId, principal);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
     @Override
     @DeleteMapping("/{courseId}/image")
     public ResponseEntity<Void> deleteCourseImage(@PathVariable("courseId") Long courseId) {
@@ -10,6 +10,7 @@ import project.backend.user.UserDTO;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Builder
 public record CourseDTO(
@@ -23,6 +24,7 @@ public record CourseDTO(
         Long totalDuration,
         Double rating,
         String imageUrl,
+        Map<String, String> imageVariants,
         List<LessonDTO> lessons,
         Integer enrollmentCount,
         CourseState courseState,
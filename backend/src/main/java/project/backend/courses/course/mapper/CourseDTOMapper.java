@@ -8,9 +8,12 @@ import project.backend.courses.category.model.Category;
 import project.backend.courses.course.model.CourseState;
 import project.backend.courses.lesson.dto.LessonDTO;
 import project.backend.courses.lesson.mapper.LessonDTOMapper;
+import project.backend.courses.utils.image.model.ImageVariant;
 import project.backend.user.UserMapper;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -52,6 +55,7 @@ public class CourseDTOMapper {
                 duration,
                 course.getRating(),
                 course.getImageUrl(),
+                toImageVariants(course),
                 lessonList,
                 course.getEnrollmentCount(),
                 course.getCourseState(),
@@ -73,6 +77,7 @@ public class CourseDTOMapper {
                 null,
                 course.getRating(),
                 course.getImageUrl(),
+                toImageVariants(course),
                 course.getLessons().stream().map(lessonDTOMapper::toDTO).collect(Collectors.toList()),
                 course.getEnrollmentCount(),
                 courseState,
@@ -81,4 +86,15 @@ public class CourseDTOMapper {
                 course.getUpdatedOn()
         );
     }
+
+    private Map<String, String> toImageVariants(Course course) {
+        if (!course.isImageVariantsReady() || course.getImageUrl() == null) {
+            return Map.of();
+        }
+        Map<String, String> variants = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            variants.put(variant.name().toLowerCase(), variant.keyFor(course.getImageUrl()));
+        }
+        return variants;
+    }
 }
@@ -12,6 +12,7 @@ import project.backend.courses.lesson.model.Lesson;
 import project.backend.user.User;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.util.List;
 
@@ -45,6 +46,10 @@ public class Course extends AuditorEntity {
     @Min(value = 1, message = "Price must be greater than 0")
     private BigDecimal discountPrice;
 
+    // discountPrice when there is one, otherwise price, in cents; carts add it up without any BigDecimal work
+    @Column(name = "effective_price_minor", nullable = false)
+    private long effectivePriceMinor;
+
 
     @ManyToMany
     private List<Category> categories;
@@ -65,6 +70,9 @@ public class Course extends AuditorEntity {
     @NotBlank(message = "Image URL cannot be blank")
     private String imageUrl;
 
+    // set once card/retina/hero variants of the current image have been generated
+    private boolean imageVariantsReady;
+
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL)
     private List<Lesson> lessons;
 
@@ -82,4 +90,10 @@ public class Course extends AuditorEntity {
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL)
     private List<Comment> comments;
 
+    @PrePersist
+    @PreUpdate
+    void updateEffectivePrice() {
+        BigDecimal effectivePrice = discountPrice != null && discountPrice.signum() > 0 ? discountPrice : price;
+        effectivePriceMinor = effectivePrice == null ? 0 : effectivePrice.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
 }
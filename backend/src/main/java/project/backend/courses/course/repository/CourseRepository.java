@@ -3,8 +3,11 @@ package project.backend.courses.course.repository;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project.backend.courses.course.model.Course;
 import project.backend.courses.course.model.CourseState;
 
@@ -18,4 +21,16 @@ public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecif
 
     @EntityGraph(attributePaths = {"lessons"})
     Optional<Course> findCourseWithSortedLessonsByIdOrderByLessonsLessonNumber(Long courseId);
+
+    // ignored when the image was replaced while its variants were being generated
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.imageVariantsReady = true WHERE c.id = :courseId AND c.imageUrl = :imageUrl")
+    int markImageVariantsReady(@Param("courseId") Long courseId, @Param("imageUrl") String imageUrl);
+
+    // ignored when the image was replaced or removed in the meantime
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.imageUrl = :storedUrl, c.imageVariantsReady = false WHERE c.id = :courseId AND c.imageUrl = :uploadedUrl")
+    int replaceImageUrl(@Param("courseId") Long courseId, @Param("uploadedUrl") String uploadedUrl, @Param("storedUrl") String storedUrl);
 }
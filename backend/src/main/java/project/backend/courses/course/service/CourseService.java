@@ -35,7 +35,9 @@ public interface CourseService {
 
     List<CourseDTO> getUsersCourse (CourseState courseState, Principal principal);
 
-    String getSignedUrlForImageUpload(Long courseId);
+    String getSignedUrlForImageUpload(Long courseId, Principal principal);
+
+    void completeImageUpload(Long courseId, Principal principal);
 
     void deleteCourseImage(Long courseId);
 }
@@ -2,11 +2,14 @@ package project.backend.courses.course.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
+import project.backend.carts.entitlement.service.EntitlementService;
 import project.backend.courses.course.dto.CourseDTO;
 import project.backend.courses.course.mapper.CourseDTOMapper;
 import project.backend.courses.course.model.Course;
@@ -20,6 +23,8 @@ import project.backend.courses.lesson.mapper.LessonDTOMapper;
 import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.lesson.service.LessonService;
 import project.backend.courses.utils.file.service.FileService;
+import project.backend.courses.utils.image.model.ImageVariant;
+import project.backend.courses.utils.image.service.ImageVariantService;
 import project.backend.permission.service.PermissionService;
 import project.backend.exception.types.ForbiddenException;
 import project.backend.exception.types.ResourceNotFoundException;
@@ -35,6 +40,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CourseServiceImpl implements CourseService {
@@ -47,6 +53,8 @@ public class CourseServiceImpl implements CourseService {
     private final LessonService lessonService;
     private final LessonDTOMapper lessonDTOMapper;
     private final PermissionService permissionService;
+    private final ImageVariantService imageVariantService;
+    private final EntitlementService entitlementService;
     @Value("${aws.s3.url}")
     private String awsS3Url;
 
@@ -131,6 +139,7 @@ public class CourseServiceImpl implements CourseService {
         List<Course> usersCourses = user.getCourseList();
         usersCourses.add(newCourse);
         userService.saveUser(user);
+        entitlementService.grantAuthorship(user.getId(), newCourse.getId());
 
         return courseDTOMapper.toDTO(newCourse);
     }
@@ -197,21 +206,92 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
-    public String getSignedUrlForImageUpload(Long courseId) {
+    public String getSignedUrlForImageUpload(Long courseId, Principal principal) {
         Course course = getCourseById(courseId);
+        checkImagePermission(course, principal);
+
+        // if an image already exists, release it before the course points at the new upload
+        releaseImage(course);
 
         String fileName = "public/courses/" + courseId + "/" + UUID.randomUUID().toString();
         course.setImageUrl(awsS3Url + "/" + fileName);
+        course.setImageVariantsReady(false);
         courseRepository.save(course);
 
         return fileService.generateUploadUrl(fileName, "image/png, image/jpeg, image/jpg");
     }
 
+    @Override
+    public void completeImageUpload(Long courseId, Principal principal) {
+        Course course = getCourseById(courseId);
+        checkImagePermission(course, principal);
+        if (course.getImageUrl() == null) {
+            throw new ResourceNotFoundException("Course with id [%s] has no image.".formatted(courseId));
+        }
+
+        course.setImageVariantsReady(false);
+        courseRepository.save(course);
+
+        // identical images may be deduplicated into a single stored copy, variants are generated for the copy the course keeps
+        fileService.completeUpload(toFileKey(course.getImageUrl()),
+                        (uploadedKey, storedKey) -> courseRepository.replaceImageUrl(courseId, awsS3Url + "/" + uploadedKey, awsS3Url + "/" + storedKey) > 0)
+                .thenAccept(fileKey -> {
+                    if (fileKey != null) {
+                        generateImageVariants(courseId, fileKey);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("Completing image upload for course [{}] failed", courseId, e);
+                    return null;
+                });
+    }
+
+    // both steps replace the stored image and start variant generation, so they are limited to the author and admins
+    private void checkImagePermission(Course course, Principal principal) {
+        if (principal == null || !permissionService.hasPermissionToEditCourse(course, principal)) {
+            throw new ForbiddenException("Insufficient role: You can only change the image of your own courses.");
+        }
+    }
+
+    private void generateImageVariants(Long courseId, String fileKey) {
+        String imageUrl = awsS3Url + "/" + fileKey;
+        try {
+            imageVariantService.generateVariants(fileKey)
+                    .thenRun(() -> courseRepository.markImageVariantsReady(courseId, imageUrl))
+                    .exceptionally(e -> {
+                        log.error("Generating image variants for course [{}] failed", courseId, e);
+                        return null;
+                    });
+        } catch (TaskRejectedException e) {
+            // catalog keeps serving the original image until the upload is completed again
+            log.warn("Image variant queue is full, skipping variants for course [{}]", courseId);
+        }
+    }
+
     @Override
     public void deleteCourseImage(Long courseId) {
         Course course = getCourseById(courseId);
-        fileService.deleteFile(course.getImageUrl());
+        releaseImage(course);
         course.setImageUrl(null);
+        course.setImageVariantsReady(false);
         courseRepository.save(course);
     }
+
+    // courses with identical images share one stored copy and its variants, both go only with the last reference
+    private void releaseImage(Course course) {
+        if (course.getImageUrl() == null) {
+            return;
+        }
+        String fileKey = toFileKey(course.getImageUrl());
+        if (fileService.deleteFile(fileKey)) {
+            for (ImageVariant variant : ImageVariant.values()) {
+                fileService.deleteFile(variant.keyFor(fileKey));
+            }
+        }
+    }
+
+    private String toFileKey(String imageUrl) {
+        String prefix = awsS3Url + "/";
+        return imageUrl.startsWith(prefix) ? imageUrl.substring(prefix.length()) : imageUrl;
+    }
 }
@@ -6,6 +6,7 @@ import project.backend.courses.lesson.dto.LessonDTO;
 import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.utils.file.response.FileResponse;
 
+import java.security.Principal;
 import java.util.List;
 
 public interface LessonController {
@@ -16,7 +17,8 @@ public interface LessonController {
     ResponseEntity<LessonDTO> updateLesson(LessonDTO lesson, @PathVariable("lessonId") Long lessonId);
 
     ResponseEntity<Void> deleteLesson(@PathVariable("lessonId") Long lessonId);
-    ResponseEntity<FileResponse> getSignedUrlForUploadLessonVideo(Long lessonId);
+    ResponseEntity<FileResponse> getSignedUrlForUploadLessonVideo(Long lessonId, Principal principal);
     ResponseEntity<FileResponse> getSignedUrlForDownloadLessonVideo(Long lessonId);
+    ResponseEntity<LessonDTO> completeVideoUpload(Long lessonId, Principal principal);
     ResponseEntity<Void> deleteVideoFromLesson(Long lessonId);
 }
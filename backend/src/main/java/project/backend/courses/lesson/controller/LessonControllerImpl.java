@@ -9,6 +9,7 @@ import project.backend.courses.lesson.service.LessonServiceImpl;
 import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.utils.file.response.FileResponse;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -47,11 +48,17 @@ public class LessonControllerImpl implements LessonController {
     @Override
     @GetMapping("/{lessonId}/video/upload")
     public ResponseEntity<FileResponse> getSignedUrlForUploadLessonVideo(
-            @PathVariable("lessonId") Long lessonId) {
-        return new ResponseEntity<>(lessonService.getSignedUrlForUploadLessonVideo(lessonId), HttpStatus.OK);
+            @PathVariable("lessonId") Long lessonId, Principal principal) {
+        return new ResponseEntity<>(lessonService.getSignedUrlForUploadLessonVideo(lessonId, principal), HttpStatus.OK);
     }
 
 
+    @Override
+    @PostMapping("/{lessonId}/video/upload/complete")
+    public ResponseEntity<LessonDTO> completeVideoUpload(@PathVariable("lessonId") Long lessonId, Principal principal) {
+        return new ResponseEntity<>(lessonService.completeVideoUpload(lessonId, principal), HttpStatus.OK);
+    }
+
     @Override
     @GetMapping("/{lessonId}/video/download")
     public ResponseEntity<FileResponse> getSignedUrlForDownloadLessonVideo(@PathVariable("lessonId") Long lessonId) {
@@ -7,6 +7,7 @@ public record LessonDTO(
         String description,
         String content,
         Integer lessonNumber,
-        String videoUrl
+        String videoUrl,
+        Long duration
 ) {
 }
@@ -7,13 +7,19 @@ import project.backend.courses.lesson.model.Lesson;
 @Service
 public class LessonDTOMapper {
     public LessonDTO toDTO(Lesson lesson) {
+        Long duration = null;
+        if (lesson.getDuration() != null) {
+            duration = lesson.getDuration().toSeconds();
+        }
+
         return new LessonDTO(
                 lesson.getId(),
                 lesson.getTitle(),
                 lesson.getDescription(),
                 lesson.getContent(),
                 lesson.getLessonNumber(),
-                lesson.getVideoUrl()
+                lesson.getVideoUrl(),
+                duration
         );
     }
 
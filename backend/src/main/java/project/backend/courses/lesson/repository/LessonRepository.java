@@ -1,9 +1,27 @@
 package project.backend.courses.lesson.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project.backend.courses.lesson.model.Lesson;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
+    @Query("SELECT l.course.id FROM Lesson l WHERE l.id = :lessonId")
+    Optional<Long> findCourseIdById(Long lessonId);
+
+    @Query("SELECT l.id FROM Lesson l WHERE l.course.id = :courseId ORDER BY l.lessonNumber, l.id")
+    List<Long> findIdsByCourseIdOrderByLessonNumber(Long courseId);
+
+    // ignored when the video was replaced or removed in the meantime
+    @Transactional
+    @Modifying
+    @Query("UPDATE Lesson l SET l.videoUrl = :storedKey WHERE l.id = :lessonId AND l.videoUrl = :uploadedKey")
+    int replaceVideoUrl(@Param("lessonId") Long lessonId, @Param("uploadedKey") String uploadedKey, @Param("storedKey") String storedKey);
 }
@@ -12,6 +12,7 @@ import project.backend.courses.lesson.mapper.LessonDTOMapper;
 import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.lesson.dto.LessonDTO;
 import project.backend.courses.notification.service.NotificationService;
+import project.backend.courses.progress.service.CourseCompletionTracker;
 
 import java.security.Principal;
 
@@ -24,6 +25,7 @@ public class CourseLessonServiceImpl implements CourseLessonService{
     private final CourseDTOMapper courseDTOMapper;
     private final LessonDTOMapper lessonDTOMapper;
     private final NotificationService notificationService;
+    private final CourseCompletionTracker courseCompletionTracker;
     @Override
     @Transactional
     public LessonDTO addLessonToCourse(Long courseId, LessonDTO lesson, Principal principal) {
@@ -45,6 +47,7 @@ public class CourseLessonServiceImpl implements CourseLessonService{
 
 
         courseService.updateCourse(courseId, courseDTO, principal);
+        courseCompletionTracker.invalidateCourse(courseId);
 
         return lessonDTO;
     }
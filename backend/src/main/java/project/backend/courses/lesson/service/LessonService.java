@@ -4,6 +4,7 @@ import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.lesson.dto.LessonDTO;
 import project.backend.courses.utils.file.response.FileResponse;
 
+import java.security.Principal;
 import java.util.List;
 
 public interface LessonService {
@@ -18,7 +19,8 @@ public interface LessonService {
     void deleteLesson(Long lessonId);
 
     String getSignedUrlForDownloadLessonVideo(Long lessonId);
-    FileResponse getSignedUrlForUploadLessonVideo(Long lessonId);
+    FileResponse getSignedUrlForUploadLessonVideo(Long lessonId, Principal principal);
+    LessonDTO completeVideoUpload(Long lessonId, Principal principal);
 
     void deleteVideoFromLesson(Long lessonId);
 
@@ -2,21 +2,32 @@ package project.backend.courses.lesson.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import project.backend.courses.course.model.Course;
 import project.backend.courses.course.model.CourseState;
+import project.backend.courses.course.repository.CourseRepository;
 import project.backend.courses.lesson.mapper.LessonDTOMapper;
 import project.backend.courses.lesson.model.Lesson;
 import project.backend.courses.lesson.dto.LessonDTO;
 import project.backend.courses.lesson.repository.LessonRepository;
 import project.backend.courses.notification.service.NotificationService;
+import project.backend.courses.progress.service.CourseCompletionTracker;
+import project.backend.courses.progress.service.LessonProgressService;
 import project.backend.courses.utils.file.response.FileResponse;
 import project.backend.courses.utils.file.service.FileService;
+import project.backend.courses.utils.video.service.Mp4DurationReader;
+import project.backend.exception.types.ForbiddenException;
 import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.permission.service.PermissionService;
 
+import java.security.Principal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LessonServiceImpl implements LessonService {
@@ -25,6 +36,11 @@ public class LessonServiceImpl implements LessonService {
     private final FileService fileService;
     private final LessonDTOMapper lessonDTOMapper;
     private final NotificationService notificationService;
+    private final Mp4DurationReader mp4DurationReader;
+    private final CourseRepository courseRepository;
+    private final CourseCompletionTracker courseCompletionTracker;
+    private final LessonProgressService lessonProgressService;
+    private final PermissionService permissionService;
     @Override
     public List<Lesson> getLessons() {
         return lessonRepository.findAll();
@@ -47,6 +63,8 @@ public class LessonServiceImpl implements LessonService {
         ));
     }
 
+    // the lesson and the queued notification are committed together
+    @Transactional
     public LessonDTO updateLesson(Long lessonId, LessonDTO lesson) {
         Lesson lessonToUpdate = getLesson(lessonId);
         if (lesson.title() != null)
@@ -55,8 +73,10 @@ public class LessonServiceImpl implements LessonService {
             lessonToUpdate.setDescription(lesson.description());
         if (lesson.content() != null)
             lessonToUpdate.setContent(lesson.content());
-        if (lesson.lessonNumber() != null)
+        if (lesson.lessonNumber() != null && lesson.lessonNumber() != lessonToUpdate.getLessonNumber()) {
             lessonToUpdate.setLessonNumber(lesson.lessonNumber());
+            courseCompletionTracker.invalidateCourse(lessonToUpdate.getCourse().getId());
+        }
         if (lesson.videoUrl() != null)
             lessonToUpdate.setVideoUrl(lesson.videoUrl());
 
@@ -69,6 +89,10 @@ public class LessonServiceImpl implements LessonService {
 
     public void deleteLesson(Long lessonId) {
         Lesson lesson = getLesson(lessonId);
+        if (lesson.getCourse() != null) {
+            courseCompletionTracker.invalidateCourse(lesson.getCourse().getId());
+        }
+        lessonProgressService.invalidateLesson(lessonId);
         lesson.setCourse(null);
         if (lesson.getVideoUrl() != null) {
             fileService.deleteFile(lesson.getVideoUrl());
@@ -83,8 +107,10 @@ public class LessonServiceImpl implements LessonService {
     }
 
     @Override
-    public FileResponse getSignedUrlForUploadLessonVideo(Long lessonId) {
+    @Transactional
+    public FileResponse getSignedUrlForUploadLessonVideo(Long lessonId, Principal principal) {
         Lesson lesson = getLesson(lessonId);
+        checkVideoPermission(lesson, principal);
 
         // if video already exists in S3, delete it
         if (lesson.getVideoUrl() != null) {
@@ -96,7 +122,9 @@ public class LessonServiceImpl implements LessonService {
         String fileName = "private/courses/" + course.getId() + "/lessons/" + UUID.randomUUID().toString();
 
         lesson.setVideoUrl(fileName);
+        lesson.setDuration(null);
         lessonRepository.save(lesson);
+        updateCourseTotalDuration(course);
 
         String url = fileService.generateUploadUrl(fileName, "video/mp4");
 
@@ -104,13 +132,62 @@ public class LessonServiceImpl implements LessonService {
     }
 
     @Override
+    @Transactional
+    public LessonDTO completeVideoUpload(Long lessonId, Principal principal) {
+        Lesson lesson = getLesson(lessonId);
+        checkVideoPermission(lesson, principal);
+        if (lesson.getVideoUrl() == null || lesson.getVideoUrl().isBlank()) {
+            throw new ResourceNotFoundException("Lesson with id [%s] has no video.".formatted(lessonId));
+        }
+
+        // identical videos may later be deduplicated into a single stored copy, the lesson is repointed then
+        fileService.completeUpload(lesson.getVideoUrl(),
+                        (uploadedKey, storedKey) -> lessonRepository.replaceVideoUrl(lessonId, uploadedKey, storedKey) > 0)
+                .exceptionally(e -> {
+                    log.error("Deduplicating video of lesson [{}] failed", lessonId, e);
+                    return null;
+                });
+        // only the moov/mvhd box is read, the video itself is never downloaded
+        lesson.setDuration(mp4DurationReader.readDuration(lesson.getVideoUrl()).orElse(null));
+        lesson = lessonRepository.save(lesson);
+        updateCourseTotalDuration(lesson.getCourse());
+
+        return lessonDTOMapper.toDTO(lesson);
+    }
+
+    @Override
+    @Transactional
     public void deleteVideoFromLesson(Long lessonId) {
         Lesson lesson = getLesson(lessonId);
         if (lesson.getVideoUrl() != null) {
             fileService.deleteFile(lesson.getVideoUrl());
             lesson.setVideoUrl(null);
+            lesson.setDuration(null);
             lessonRepository.save(lesson);
+            updateCourseTotalDuration(lesson.getCourse());
+        }
+    }
+
+    // replacing the video deletes the stored one and rewrites the course duration, so only the course author or an admin may
+    private void checkVideoPermission(Lesson lesson, Principal principal) {
+        boolean permitted = principal != null && (lesson.getCourse() == null
+                ? permissionService.hasRole(principal, "ROLE_ADMIN")
+                : permissionService.hasPermissionToEditCourse(lesson.getCourse(), principal));
+        if (!permitted) {
+            throw new ForbiddenException("Insufficient role: You can only change videos of your own courses.");
+        }
+    }
+
+    private void updateCourseTotalDuration(Course course) {
+        if (course == null || course.getLessons() == null) {
+            return;
         }
+        Duration totalDuration = course.getLessons().stream()
+                .map(Lesson::getDuration)
+                .filter(Objects::nonNull)
+                .reduce(Duration.ZERO, Duration::plus);
+        course.setTotalDuration(totalDuration);
+        courseRepository.save(course);
     }
 
 }
@@ -1,17 +1,25 @@
 package project.backend.courses.notification.controller;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestBody;
-import project.backend.courses.notification.model.Notification;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.backend.courses.notification.dto.AnnouncementPageDTO;
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.dto.NotificationPageDTO;
+import project.backend.courses.notification.dto.NotificationStatsDTO;
+import project.backend.courses.notification.dto.NotificationStatusUpdateRequest;
+import project.backend.courses.notification.dto.UnreadCountDTO;
 import project.backend.courses.notification.model.NotificationStatus;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Map;
 
 public interface NotificationController {
-    ResponseEntity<List<Notification>> getUsersNotifications(Principal principal);
-    ResponseEntity<List<Notification>> getUsersNotificationsByStatus(Principal principal, NotificationStatus notificationStatus);
-    ResponseEntity<Notification> updateNotificationStatus(@PathVariable("notificationId") Long notificationId, @RequestBody Map<String, String> body);
+    ResponseEntity<NotificationPageDTO> getUsersNotifications(NotificationStatus notificationStatus, Long cursor, int limit, Principal principal);
+    ResponseEntity<UnreadCountDTO> getUnreadCount(Principal principal);
+    ResponseEntity<NotificationStatsDTO> getStats(Principal principal);
+    ResponseEntity<UnreadCountDTO> updateNotificationStatuses(NotificationStatusUpdateRequest request, Principal principal);
+    ResponseEntity<NotificationDTO> updateNotificationStatus(Long notificationId, Map<String, String> body, Principal principal);
+    ResponseEntity<SseEmitter> streamNotifications(Principal principal);
+    ResponseEntity<AnnouncementPageDTO> getUnreadAnnouncements(Long cursor, int limit, Principal principal);
+    ResponseEntity<Void> markAnnouncementsSeen(Long courseId, Principal principal);
 }
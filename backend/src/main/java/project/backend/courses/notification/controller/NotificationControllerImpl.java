@@ -1,14 +1,23 @@
 package project.backend.courses.notification.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import project.backend.courses.notification.model.Notification;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.backend.courses.notification.dto.AnnouncementPageDTO;
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.dto.NotificationPageDTO;
+import project.backend.courses.notification.dto.NotificationStatsDTO;
+import project.backend.courses.notification.dto.NotificationStatusUpdateRequest;
+import project.backend.courses.notification.dto.UnreadCountDTO;
 import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.service.CourseAnnouncementService;
 import project.backend.courses.notification.service.NotificationService;
+import project.backend.courses.notification.service.NotificationStreamService;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Map;
 
 @RequestMapping("api/v1/notifications")
@@ -18,23 +27,67 @@ public class NotificationControllerImpl implements NotificationController {
 
 
     private final NotificationService notificationService;
+    private final CourseAnnouncementService courseAnnouncementService;
+    private final NotificationStreamService notificationStreamService;
 
     @Override
     @GetMapping("/me")
-    public ResponseEntity<List<Notification>> getUsersNotifications(Principal principal) {
-        return ResponseEntity.ok(notificationService.getUsersNotifications(principal));
+    public ResponseEntity<NotificationPageDTO> getUsersNotifications(
+            @RequestParam(value = "status", required = false) NotificationStatus notificationStatus,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Principal principal
+    ) {
+        return ResponseEntity.ok(notificationService.getUsersNotifications(notificationStatus, cursor, limit, principal));
     }
 
     @Override
-    @GetMapping("/{notificationStatus}/me")
-    public ResponseEntity<List<Notification>> getUsersNotificationsByStatus(Principal principal, @PathVariable("notificationStatus") NotificationStatus notificationStatus) {
-        return ResponseEntity.ok(notificationService.getUsersNotificationsByStatus(principal, notificationStatus));
+    @GetMapping("/me/unread-count")
+    public ResponseEntity<UnreadCountDTO> getUnreadCount(Principal principal) {
+        return ResponseEntity.ok(notificationService.getUnreadCount(principal));
+    }
+
+    @Override
+    @GetMapping("/stats")
+    public ResponseEntity<NotificationStatsDTO> getStats(Principal principal) {
+        return ResponseEntity.ok(notificationService.getStats(principal));
+    }
+
+    // "mark all as read" in one request, returns the new unread count
+    @Override
+    @PutMapping("/me/status")
+    public ResponseEntity<UnreadCountDTO> updateNotificationStatuses(@RequestBody NotificationStatusUpdateRequest request, Principal principal) {
+        return ResponseEntity.ok(notificationService.updateNotificationStatuses(request, principal));
     }
 
     @Override
     @PutMapping("/{notificationId}")
-    public ResponseEntity<Notification> updateNotificationStatus(@PathVariable("notificationId") Long notificationId, @RequestBody Map<String, String> body) {
+    public ResponseEntity<NotificationDTO> updateNotificationStatus(@PathVariable("notificationId") Long notificationId, @RequestBody Map<String, String> body, Principal principal) {
         NotificationStatus notificationStatus = NotificationStatus.valueOf(body.get("notificationStatus"));
-        return ResponseEntity.ok(notificationService.updateNotificationStatus(notificationId, notificationStatus));
+        return ResponseEntity.ok(notificationService.updateNotificationStatus(notificationId, notificationStatus, principal));
+    }
+
+    // pushes "notification" and "unread-count" events, replaces polling /me for the badge
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(Principal principal) {
+        return ResponseEntity.ok(notificationStreamService.subscribe(principal));
+    }
+
+    @Override
+    @GetMapping("/me/announcements")
+    public ResponseEntity<AnnouncementPageDTO> getUnreadAnnouncements(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Principal principal
+    ) {
+        return ResponseEntity.ok(courseAnnouncementService.getUnreadAnnouncements(cursor, limit, principal));
+    }
+
+    @Override
+    @PutMapping("/me/announcements/seen")
+    public ResponseEntity<Void> markAnnouncementsSeen(@RequestParam(value = "courseId", required = false) Long courseId, Principal principal) {
+        courseAnnouncementService.markSeen(courseId, principal);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 }
@@ -0,0 +1,12 @@
+package project.backend.courses.notification.dto;
+
+import java.time.LocalDateTime;
+
+public record AnnouncementDTO(
+        Long id,
+        Long courseId,
+        String courseTitle,
+        String message,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,10 @@
+package project.backend.courses.notification.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record AnnouncementPageDTO(
+        List<AnnouncementDTO> items,
+        Long nextCursor
+) {
+}
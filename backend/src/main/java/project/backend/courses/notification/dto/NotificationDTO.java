@@ -0,0 +1,14 @@
+package project.backend.courses.notification.dto;
+
+import project.backend.courses.notification.model.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+// id is the id of the recipient's inbox entry
+public record NotificationDTO(
+        Long id,
+        String message,
+        NotificationStatus notificationStatus,
+        LocalDateTime createdAt
+) {
+}
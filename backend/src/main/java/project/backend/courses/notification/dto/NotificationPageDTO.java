@@ -0,0 +1,9 @@
+package project.backend.courses.notification.dto;
+
+import java.util.List;
+
+public record NotificationPageDTO(
+        List<NotificationDTO> items,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,11 @@
+package project.backend.courses.notification.dto;
+
+// received, coalesced and dispatched are counted by the node that answers, pending is read from the outbox
+public record NotificationStatsDTO(
+        long receivedEvents,
+        long coalescedEvents,
+        long dispatchedEvents,
+        long pendingEvents,
+        long coalescingWindowMs
+) {
+}
@@ -0,0 +1,13 @@
+package project.backend.courses.notification.dto;
+
+import project.backend.courses.notification.model.NotificationStatus;
+
+import java.util.List;
+
+// either the inbox entry ids to update, or upTo to update every entry with an id up to and including it
+public record NotificationStatusUpdateRequest(
+        NotificationStatus notificationStatus,
+        List<Long> ids,
+        Long upTo
+) {
+}
@@ -0,0 +1,6 @@
+package project.backend.courses.notification.dto;
+
+public record UnreadCountDTO(
+        long unreadCount
+) {
+}
@@ -0,0 +1,7 @@
+package project.backend.courses.notification.dto;
+
+public record UserUnreadCount(
+        Long userId,
+        Long unreadCount
+) {
+}
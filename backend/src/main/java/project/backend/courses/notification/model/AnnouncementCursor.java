@@ -0,0 +1,41 @@
+package project.backend.courses.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+    Last announcement a user has seen in a course. Announcements with a greater id are unread.
+    Written only with native upserts by CourseAnnouncementServiceImpl.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "announcement_cursor",
+        uniqueConstraints = @UniqueConstraint(name = "announcement_cursor_user_course_key", columnNames = {"user_id", "course_id"})
+)
+public class AnnouncementCursor {
+    @SequenceGenerator(
+            name = "announcement_cursor_sequence",
+            sequenceName = "announcement_cursor_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "announcement_cursor_sequence"
+    )
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "last_seen_id", nullable = false)
+    private Long lastSeenId;
+}
@@ -0,0 +1,38 @@
+package project.backend.courses.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// stored once per course, recipients read it through their announcement cursors
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "course_announcement",
+        indexes = @Index(name = "course_announcement_course_id_idx", columnList = "course_id, id")
+)
+public class CourseAnnouncement {
+    @SequenceGenerator(
+            name = "course_announcement_sequence",
+            sequenceName = "course_announcement_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "course_announcement_sequence"
+    )
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+}
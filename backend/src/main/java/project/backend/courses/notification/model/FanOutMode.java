@@ -0,0 +1,8 @@
+package project.backend.courses.notification.model;
+
+public enum FanOutMode {
+    // one inbox row per buyer is inserted when the course changes
+    WRITE,
+    // one announcement per course, buyers merge them when they read
+    READ
+}
@@ -22,5 +22,4 @@ public class Notification {
     )
     private Long id;
     private String message;
-    private NotificationStatus notificationStatus;
 }
@@ -0,0 +1,51 @@
+package project.backend.courses.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+    Course change waiting to be fanned out. Inserted in the transaction of the change itself
+    and deleted by NotificationOutboxDispatcher in the transaction that performs the fan-out.
+    Further changes of the course are folded into its event until the first dispatch attempt,
+    a partial unique index keeps at most one such event per course (see schema-postgresql.sql).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "notification_outbox",
+        indexes = @Index(name = "notification_outbox_available_at_idx", columnList = "available_at, id")
+)
+public class NotificationOutboxEvent {
+    @SequenceGenerator(
+            name = "notification_outbox_sequence",
+            sequenceName = "notification_outbox_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "notification_outbox_sequence"
+    )
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    private int attempts;
+
+    // changes folded into this event after it was queued
+    private int coalescedEvents;
+}
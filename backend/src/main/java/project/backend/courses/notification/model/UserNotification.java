@@ -0,0 +1,53 @@
+package project.backend.courses.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import project.backend.user.User;
+
+import java.time.LocalDateTime;
+
+/*
+    Inbox entry of one recipient. The notification text is stored once and shared,
+    the read state belongs to the recipient.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "user_notification_user_notification_key", columnNames = {"user_id", "notification_id"}),
+        indexes = {
+                @Index(name = "user_notification_user_status_idx", columnList = "user_id, status, id"),
+                // orphan lookups of the retention job
+                @Index(name = "user_notification_notification_id_idx", columnList = "notification_id")
+        }
+)
+public class UserNotification {
+    @SequenceGenerator(
+            name = "user_notification_sequence",
+            sequenceName = "user_notification_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "user_notification_sequence"
+    )
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "notification_id", nullable = false)
+    private Notification notification;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    private LocalDateTime createdAt;
+}
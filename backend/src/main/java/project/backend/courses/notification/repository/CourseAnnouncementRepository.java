@@ -0,0 +1,9 @@
+package project.backend.courses.notification.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import project.backend.courses.notification.model.CourseAnnouncement;
+
+@Repository
+public interface CourseAnnouncementRepository extends JpaRepository<CourseAnnouncement, Long> {
+}
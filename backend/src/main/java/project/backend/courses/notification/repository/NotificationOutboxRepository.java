@@ -0,0 +1,29 @@
+package project.backend.courses.notification.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import project.backend.courses.notification.model.NotificationOutboxEvent;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEvent, Long> {
+
+    /*
+        Queues a change, or folds it into the event of the same course that was not attempted yet, the latest message wins.
+        One statement against the partial unique index, so concurrent changes of a course never queue two events.
+        Returns how many changes the event holds besides the first one, 0 when a new event was queued.
+        Not @Modifying, that would return the row count instead of the RETURNING value, hence the explicit write transaction.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO notification_outbox (id, course_id, message, created_at, available_at, attempts, coalesced_events)
+            VALUES (nextval('notification_outbox_sequence'), :courseId, :message, :now, :availableAt, 0, 0)
+            ON CONFLICT (course_id) WHERE attempts = 0
+            DO UPDATE SET message = EXCLUDED.message, coalesced_events = notification_outbox.coalesced_events + 1
+            RETURNING coalesced_events
+            """, nativeQuery = true)
+    int enqueue(Long courseId, String message, LocalDateTime now, LocalDateTime availableAt);
+}
@@ -4,8 +4,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import project.backend.courses.notification.model.Notification;
 
-import java.util.List;
-
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 }
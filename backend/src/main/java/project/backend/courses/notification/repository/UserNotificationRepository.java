@@ -0,0 +1,84 @@
+package project.backend.courses.notification.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.dto.UserUnreadCount;
+import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.model.UserNotification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserNotificationRepository extends JpaRepository<UserNotification, Long> {
+
+    // fan-out to every buyer of the course in one statement, no user is loaded
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_notification (id, user_id, notification_id, status, created_at)
+            SELECT nextval('user_notification_sequence'), buyers.user_id, :notificationId, 'UNREAD', :createdAt
+            FROM (
+                SELECT DISTINCT c.user_id
+                FROM cart c JOIN cart_item ci ON ci.cart_id = c.id
+                WHERE ci.course_id = :courseId AND c.cart_status = 'COMPLETED' AND c.user_id IS NOT NULL
+            ) buyers
+            ON CONFLICT (user_id, notification_id) DO NOTHING
+            """, nativeQuery = true)
+    int assignToCourseBuyers(Long notificationId, Long courseId, LocalDateTime createdAt);
+
+    // keyset paging, newest first
+    @Query("""
+            SELECT new project.backend.courses.notification.dto.NotificationDTO(un.id, n.message, un.status, un.createdAt)
+            FROM UserNotification un JOIN un.notification n
+            WHERE un.user.id = :userId AND un.id < :cursor
+            ORDER BY un.id DESC
+            """)
+    List<NotificationDTO> findPage(Long userId, Long cursor, Limit limit);
+
+    @Query("""
+            SELECT new project.backend.courses.notification.dto.NotificationDTO(un.id, n.message, un.status, un.createdAt)
+            FROM UserNotification un JOIN un.notification n
+            WHERE un.user.id = :userId AND un.status = :status AND un.id < :cursor
+            ORDER BY un.id DESC
+            """)
+    List<NotificationDTO> findPageByStatus(Long userId, NotificationStatus status, Long cursor, Limit limit);
+
+    @Query("""
+            SELECT new project.backend.courses.notification.dto.NotificationDTO(un.id, n.message, un.status, un.createdAt)
+            FROM UserNotification un JOIN un.notification n
+            WHERE un.id = :id AND un.user.id = :userId
+            """)
+    Optional<NotificationDTO> findDTO(Long id, Long userId);
+
+    long countByUserIdAndStatus(Long userId, NotificationStatus status);
+
+    @Query("""
+            SELECT new project.backend.courses.notification.dto.UserUnreadCount(un.user.id, count(un))
+            FROM UserNotification un
+            WHERE un.user.id IN :userIds AND un.status = project.backend.courses.notification.model.NotificationStatus.UNREAD
+            GROUP BY un.user.id
+            """)
+    List<UserUnreadCount> countUnreadByUserIds(Collection<Long> userIds);
+
+    @Query("SELECT un.user.id FROM UserNotification un WHERE un.notification.id = :notificationId AND un.user.id IN :userIds")
+    List<Long> findRecipientsAmong(Long notificationId, Collection<Long> userIds);
+
+    // only rows whose status actually changes are counted, so the result is the change of the unread count
+    @Modifying
+    @Query("UPDATE UserNotification un SET un.status = :status WHERE un.id = :id AND un.user.id = :userId AND un.status <> :status")
+    int updateStatus(Long id, Long userId, NotificationStatus status);
+
+    @Modifying
+    @Query("UPDATE UserNotification un SET un.status = :status WHERE un.user.id = :userId AND un.id IN :ids AND un.status <> :status")
+    int updateStatusByIds(Long userId, Collection<Long> ids, NotificationStatus status);
+
+    @Modifying
+    @Query("UPDATE UserNotification un SET un.status = :status WHERE un.user.id = :userId AND un.id <= :upTo AND un.status <> :status")
+    int updateStatusUpTo(Long userId, Long upTo, NotificationStatus status);
+}
@@ -0,0 +1,11 @@
+package project.backend.courses.notification.service;
+
+import project.backend.courses.notification.dto.AnnouncementPageDTO;
+
+import java.security.Principal;
+
+public interface CourseAnnouncementService {
+    void announce(Long courseId, String message);
+    AnnouncementPageDTO getUnreadAnnouncements(Long cursor, int limit, Principal principal);
+    void markSeen(Long courseId, Principal principal);
+}
@@ -0,0 +1,138 @@
+package project.backend.courses.notification.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import project.backend.courses.notification.dto.AnnouncementDTO;
+import project.backend.courses.notification.dto.AnnouncementPageDTO;
+import project.backend.courses.notification.model.CourseAnnouncement;
+import project.backend.courses.notification.repository.CourseAnnouncementRepository;
+import project.backend.exception.types.BadRequestException;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+    Fan-out on read: a course change is stored once, whatever the number of buyers.
+    A reader gets the newest unread announcements of each owned course, at most one page per course,
+    and the per-course lists are merged newest first. The cost depends on the number of owned courses
+    and the page size, not on how popular the courses are.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseAnnouncementServiceImpl implements CourseAnnouncementService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String OWNED_COURSES_SQL = """
+            SELECT DISTINCT ci.course_id
+            FROM cart c JOIN cart_item ci ON ci.cart_id = c.id
+            WHERE c.user_id = ? AND c.cart_status = 'COMPLETED'
+            """;
+
+    // rows come grouped by course, newest first within a course
+    static final String UNREAD_SQL = """
+            SELECT a.id, a.course_id, co.title, a.message, a.created_at
+            FROM (%s) owned
+            JOIN course co ON co.id = owned.course_id
+            LEFT JOIN announcement_cursor ac ON ac.user_id = ? AND ac.course_id = owned.course_id
+            CROSS JOIN LATERAL (
+                SELECT id, course_id, message, created_at
+                FROM course_announcement
+                WHERE course_id = owned.course_id AND id > COALESCE(ac.last_seen_id, 0) AND id < ?
+                ORDER BY id DESC
+                LIMIT ?
+            ) a
+            ORDER BY a.course_id, a.id DESC
+            """.formatted(OWNED_COURSES_SQL);
+
+    private static final String MARK_SEEN_SQL = """
+            INSERT INTO announcement_cursor (id, user_id, course_id, last_seen_id)
+            SELECT nextval('announcement_cursor_sequence'), ?, a.course_id, max(a.id)
+            FROM course_announcement a
+            WHERE a.course_id IN (%s) %s
+            GROUP BY a.course_id
+            ON CONFLICT (user_id, course_id)
+            DO UPDATE SET last_seen_id = GREATEST(announcement_cursor.last_seen_id, EXCLUDED.last_seen_id)
+            """;
+
+    private final CourseAnnouncementRepository courseAnnouncementRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+
+    @Override
+    public void announce(Long courseId, String message) {
+        courseAnnouncementRepository.save(CourseAnnouncement.builder()
+                .courseId(courseId)
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public AnnouncementPageDTO getUnreadAnnouncements(Long cursor, int limit, Principal principal) {
+        if (principal == null)
+            throw new ForbiddenException("You must be logged in to see your announcements.");
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new BadRequestException("Limit must be between 1 and %d.".formatted(MAX_PAGE_SIZE));
+        Long userId = userService.getUserId(principal);
+
+        Map<Long, List<AnnouncementDTO>> perCourse = new LinkedHashMap<>();
+        jdbcTemplate.query(UNREAD_SQL, rs -> {
+            AnnouncementDTO announcement = new AnnouncementDTO(
+                    rs.getLong("id"),
+                    rs.getLong("course_id"),
+                    rs.getString("title"),
+                    rs.getString("message"),
+                    rs.getObject("created_at", LocalDateTime.class));
+            perCourse.computeIfAbsent(announcement.courseId(), courseId -> new ArrayList<>()).add(announcement);
+        }, userId, userId, cursor == null ? Long.MAX_VALUE : cursor, limit);
+
+        List<AnnouncementDTO> items = mergeNewestFirst(perCourse.values(), limit);
+        Long nextCursor = items.size() < limit ? null : items.get(items.size() - 1).id();
+        return new AnnouncementPageDTO(items, nextCursor);
+    }
+
+    // moves the cursor of one owned course, or of all of them, to its newest announcement
+    @Override
+    public void markSeen(Long courseId, Principal principal) {
+        if (principal == null)
+            throw new ForbiddenException("You must be logged in to see your announcements.");
+        Long userId = userService.getUserId(principal);
+        if (courseId == null) {
+            jdbcTemplate.update(MARK_SEEN_SQL.formatted(OWNED_COURSES_SQL, ""), userId, userId);
+        } else {
+            jdbcTemplate.update(MARK_SEEN_SQL.formatted(OWNED_COURSES_SQL, "AND a.course_id = ?"), userId, userId, courseId);
+        }
+    }
+
+    // k-way merge of lists sorted by descending id, stops after limit items
+    static List<AnnouncementDTO> mergeNewestFirst(Collection<List<AnnouncementDTO>> lists, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(
+                Math.max(1, lists.size()),
+                Comparator.comparing((Head head) -> head.current().id()).reversed());
+        for (List<AnnouncementDTO> list : lists) {
+            if (!list.isEmpty()) {
+                heads.add(new Head(list, 0));
+            }
+        }
+
+        List<AnnouncementDTO> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.current());
+            if (head.index() + 1 < head.list().size()) {
+                heads.add(new Head(head.list(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(List<AnnouncementDTO> list, int index) {
+        AnnouncementDTO current() {
+            return list.get(index);
+        }
+    }
+}
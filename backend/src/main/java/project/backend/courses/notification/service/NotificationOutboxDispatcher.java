@@ -0,0 +1,139 @@
+package project.backend.courses.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Drains notification_outbox. Every worker claims one event at a time with FOR UPDATE SKIP LOCKED,
+    performs the fan-out and deletes the event in the same transaction, so workers on this node
+    and on other nodes never pick the same event and an event is removed only once its fan-out is committed.
+    A failing event is retried with a growing delay and dropped after maxAttempts.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final String CLAIM_SQL = """
+            SELECT id, course_id, message, attempts
+            FROM notification_outbox
+            WHERE available_at <= ?
+            ORDER BY available_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final NotificationStats notificationStats;
+    private final ThreadPoolTaskExecutor executor;
+    private final int workers;
+    private final int maxAttempts;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    public NotificationOutboxDispatcher(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            NotificationService notificationService,
+            NotificationStats notificationStats,
+            @Qualifier("notificationDispatchExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${application.notifications.outbox.workers:2}") int workers,
+            @Value("${application.notifications.outbox.max-attempts:5}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationService = notificationService;
+        this.notificationStats = notificationStats;
+        this.executor = executor;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // tops the pool up to the configured number of workers, a worker stops when the outbox is empty
+    @Scheduled(fixedDelayString = "${application.notifications.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        while (activeWorkers.incrementAndGet() <= workers) {
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                break;
+            }
+        }
+        activeWorkers.decrementAndGet();
+    }
+
+    // only hands work to the pool, the committing request thread is not delayed
+    @TransactionalEventListener
+    public void onQueued(NotificationQueuedEvent event) {
+        poll();
+    }
+
+    void drain() {
+        try {
+            while (dispatchNext()) {
+                // keep claiming until nothing is available
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private boolean dispatchNext() {
+        OutboxEvent[] claimed = new OutboxEvent[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL,
+                        (rs, rowNum) -> new OutboxEvent(
+                                rs.getLong("id"),
+                                rs.getLong("course_id"),
+                                rs.getString("message"),
+                                rs.getInt("attempts")),
+                        LocalDateTime.now());
+                if (!events.isEmpty()) {
+                    claimed[0] = events.get(0);
+                    notificationService.dispatch(claimed[0].message(), claimed[0].courseId());
+                    jdbcTemplate.update("DELETE FROM notification_outbox WHERE id = ?", claimed[0].id());
+                }
+            });
+            if (claimed[0] == null) {
+                return false;
+            }
+            notificationStats.dispatched();
+            return true;
+        } catch (RuntimeException e) {
+            if (claimed[0] == null) {
+                log.error("Claiming a notification outbox event failed", e);
+                return false;
+            }
+            recordFailure(claimed[0], e);
+            return true;
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException e) {
+        int attempts = event.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Dropping notification outbox event [{}] for course [{}] after {} attempts", event.id(), event.courseId(), attempts, e);
+            jdbcTemplate.update("DELETE FROM notification_outbox WHERE id = ?", event.id());
+            return;
+        }
+        log.warn("Dispatching notification outbox event [{}] failed, attempt {}", event.id(), attempts, e);
+        jdbcTemplate.update("UPDATE notification_outbox SET attempts = ?, available_at = ? WHERE id = ?",
+                attempts, LocalDateTime.now().plusSeconds(1L << Math.min(attempts, 10)), event.id());
+    }
+
+    private record OutboxEvent(Long id, Long courseId, String message, int attempts) {
+    }
+}
@@ -0,0 +1,5 @@
+package project.backend.courses.notification.service;
+
+// published when a course change is written to the outbox, lets the local dispatcher start without waiting for its poll
+public record NotificationQueuedEvent(Long courseId) {
+}
@@ -0,0 +1,106 @@
+package project.backend.courses.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/*
+    Deletes read inbox entries older than the retention period, then notifications no inbox entry points to.
+    Both walk the primary key in keyset batches, every batch is its own short statement, so no lock is held
+    for longer than one batch. Inbox ids grow with created_at, the walk stops at the first batch that lies
+    entirely after the cutoff instead of scanning the recent part of the table.
+ */
+@Slf4j
+@Component
+public class NotificationRetentionJob {
+
+    private static final String DELETE_READ_BATCH_SQL = """
+            WITH batch AS (
+                SELECT id, status, created_at FROM user_notification
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            ), deleted AS (
+                DELETE FROM user_notification un
+                USING batch
+                WHERE un.id = batch.id AND batch.status = 'READ' AND batch.created_at < ?
+                RETURNING un.id
+            )
+            SELECT max(batch.id) AS last_id, min(batch.created_at) AS oldest_created_at, (SELECT count(*) FROM deleted) AS deleted
+            FROM batch
+            """;
+
+    private static final String DELETE_ORPHANS_BATCH_SQL = """
+            WITH batch AS (
+                SELECT id FROM notification
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            ), deleted AS (
+                DELETE FROM notification n
+                USING batch
+                WHERE n.id = batch.id
+                AND NOT EXISTS (SELECT 1 FROM user_notification un WHERE un.notification_id = batch.id)
+                RETURNING n.id
+            )
+            SELECT max(batch.id) AS last_id, (SELECT count(*) FROM deleted) AS deleted
+            FROM batch
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public NotificationRetentionJob(
+            JdbcTemplate jdbcTemplate,
+            @Value("${application.notifications.retention.days:90}") int retentionDays,
+            @Value("${application.notifications.retention.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${application.notifications.retention.cron:0 30 3 * * *}")
+    public void run() {
+        long deletedEntries = deleteReadEntries(LocalDateTime.now().minusDays(retentionDays));
+        long deletedNotifications = deleteOrphanedNotifications();
+        log.info("Notification retention removed {} read inbox entries and {} orphaned notifications", deletedEntries, deletedNotifications);
+    }
+
+    long deleteReadEntries(LocalDateTime cutoff) {
+        long deleted = 0;
+        long cursor = 0;
+        while (true) {
+            Map<String, Object> batch = jdbcTemplate.queryForMap(DELETE_READ_BATCH_SQL, cursor, batchSize, cutoff);
+            if (batch.get("last_id") == null) {
+                return deleted;
+            }
+            deleted += ((Number) batch.get("deleted")).longValue();
+            cursor = ((Number) batch.get("last_id")).longValue();
+            Timestamp oldestCreatedAt = (Timestamp) batch.get("oldest_created_at");
+            if (oldestCreatedAt != null && !oldestCreatedAt.toLocalDateTime().isBefore(cutoff)) {
+                return deleted;
+            }
+        }
+    }
+
+    // a notification whose recipients were all removed can never be read again
+    long deleteOrphanedNotifications() {
+        long deleted = 0;
+        long cursor = 0;
+        while (true) {
+            Map<String, Object> batch = jdbcTemplate.queryForMap(DELETE_ORPHANS_BATCH_SQL, cursor, batchSize);
+            if (batch.get("last_id") == null) {
+                return deleted;
+            }
+            deleted += ((Number) batch.get("deleted")).longValue();
+            cursor = ((Number) batch.get("last_id")).longValue();
+        }
+    }
+}
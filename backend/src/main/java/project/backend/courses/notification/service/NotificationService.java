@@ -1,17 +1,25 @@
 package project.backend.courses.notification.service;
 
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.dto.NotificationPageDTO;
+import project.backend.courses.notification.dto.NotificationStatsDTO;
+import project.backend.courses.notification.dto.NotificationStatusUpdateRequest;
+import project.backend.courses.notification.dto.UnreadCountDTO;
 import project.backend.courses.notification.model.Notification;
 import project.backend.courses.notification.model.NotificationStatus;
 
 import java.security.Principal;
-import java.util.List;
 
 public interface NotificationService {
+    // queued in the caller's transaction, the fan-out runs later in NotificationOutboxDispatcher
     void assignNotifications(String message, Long courseId);
+    void dispatch(String message, Long courseId);
     Notification createNotification(Notification notification);
     Notification getNotificationById(Long id);
-    Notification updateNotificationStatus(Long notificationId, NotificationStatus notificationStatus);
+    NotificationDTO updateNotificationStatus(Long notificationId, NotificationStatus notificationStatus, Principal principal);
     Notification deleteNotificationById(Long id);
-    List<Notification> getUsersNotifications(Principal principal);
-    List<Notification> getUsersNotificationsByStatus(Principal principal, NotificationStatus notificationStatus);
+    UnreadCountDTO updateNotificationStatuses(NotificationStatusUpdateRequest request, Principal principal);
+    UnreadCountDTO getUnreadCount(Principal principal);
+    NotificationStatsDTO getStats(Principal principal);
+    NotificationPageDTO getUsersNotifications(NotificationStatus notificationStatus, Long cursor, int limit, Principal principal);
 }
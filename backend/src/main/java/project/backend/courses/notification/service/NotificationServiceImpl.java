@@ -1,45 +1,83 @@
 package project.backend.courses.notification.service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import project.backend.carts.cart.model.Cart;
-import project.backend.carts.cart.model.CartStatus;
-import project.backend.carts.cart.service.CartService;
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.dto.NotificationPageDTO;
+import project.backend.courses.notification.dto.NotificationStatsDTO;
+import project.backend.courses.notification.dto.NotificationStatusUpdateRequest;
+import project.backend.courses.notification.dto.UnreadCountDTO;
+import project.backend.courses.notification.model.FanOutMode;
 import project.backend.courses.notification.model.Notification;
 import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.repository.NotificationOutboxRepository;
 import project.backend.courses.notification.repository.NotificationRepository;
+import project.backend.courses.notification.repository.UserNotificationRepository;
+import project.backend.exception.types.BadRequestException;
+import project.backend.exception.types.ForbiddenException;
 import project.backend.exception.types.ResourceNotFoundException;
-import project.backend.user.User;
+import project.backend.permission.service.PermissionService;
 import project.backend.user.UserService;
 
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 1000;
 
     private final NotificationRepository notificationRepository;
-    private final CartService cartService;
+    private final UserNotificationRepository userNotificationRepository;
     private final UserService userService;
+    private final CourseAnnouncementService courseAnnouncementService;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationStreamService notificationStreamService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationStats notificationStats;
+    private final PermissionService permissionService;
+    @Value("${application.notifications.fan-out:WRITE}")
+    private FanOutMode fanOutMode;
+    @Value("${application.notifications.coalescing.window-ms:30000}")
+    private long coalescingWindowMs;
+
     @Override
+    @Transactional
     public void assignNotifications(String message, Long courseId) {
+        LocalDateTime now = LocalDateTime.now();
+        // a burst of edits to one course becomes a single fan-out once the window of its first edit ends
+        boolean coalesced = notificationOutboxRepository.enqueue(courseId, message, now, now.plus(Duration.ofMillis(coalescingWindowMs))) > 0;
+        notificationStats.received(coalesced);
+        if (!coalesced && coalescingWindowMs == 0) {
+            eventPublisher.publishEvent(new NotificationQueuedEvent(courseId));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void dispatch(String message, Long courseId) {
+        if (fanOutMode == FanOutMode.READ) {
+            courseAnnouncementService.announce(courseId, message);
+            return;
+        }
 
         Notification notification = createNotification(
                 Notification.builder()
                         .message(message)
-                        .notificationStatus(NotificationStatus.UNREAD)
                         .build()
         );
 
-
-        List<Cart> cartList = cartService.getAllCartsByCourseIdAndCartStatus(courseId, CartStatus.COMPLETED);
-        cartList.stream().map(Cart::getUser).forEach(user -> {
-            List<Notification> notificationList = user.getNotificationList();
-            notificationList.add(notification);
-            user.setNotificationList(notificationList);
-            userService.saveUser(user);
-        });
+        userNotificationRepository.assignToCourseBuyers(notification.getId(), courseId, LocalDateTime.now());
+        unreadNotificationCounter.onDelivered(notification.getId());
+        notificationStreamService.publishNotification(notification.getId());
     }
 
     @Override
@@ -52,30 +90,87 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findById(id).orElseThrow(()-> new ResourceNotFoundException("Notification with id [" + id + "] not found."));
     }
 
+    // only the caller's inbox entry changes, other recipients keep their own status
     @Override
-    public Notification updateNotificationStatus(Long notificationId, NotificationStatus notificationStatus) {
-        Notification notification = getNotificationById(notificationId);
-        notification.setNotificationStatus(notificationStatus);
-        return notificationRepository.save(notification);
+    @Transactional
+    public NotificationDTO updateNotificationStatus(Long notificationId, NotificationStatus notificationStatus, Principal principal) {
+        Long userId = userService.getUserId(principal);
+        boolean changed = userNotificationRepository.updateStatus(notificationId, userId, notificationStatus) > 0;
+        NotificationDTO notification = userNotificationRepository.findDTO(notificationId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification with id [" + notificationId + "] not found."));
+        if (changed) {
+            unreadNotificationCounter.adjust(userId, notificationStatus == NotificationStatus.UNREAD ? 1 : -1);
+            notificationStreamService.publishUnreadCount(userId);
+        }
+        return notification;
     }
 
+    // one set-based update scoped to the caller, ids of other users are ignored
     @Override
-    public Notification deleteNotificationById(Long id) {
-        return null;
+    @Transactional
+    public UnreadCountDTO updateNotificationStatuses(NotificationStatusUpdateRequest request, Principal principal) {
+        if(principal == null)
+            throw new ResourceNotFoundException("User not found");
+        if (request.notificationStatus() == null)
+            throw new BadRequestException("Notification status is required.");
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        if (byIds == (request.upTo() != null))
+            throw new BadRequestException("Either ids or upTo must be given.");
+        if (byIds && request.ids().size() > MAX_BULK_IDS)
+            throw new BadRequestException("At most %d notifications can be updated at once.".formatted(MAX_BULK_IDS));
+
+        Long userId = userService.getUserId(principal);
+        // read before the update, the cache is adjusted only once the update commits
+        long unread = unreadNotificationCounter.get(userId);
+        int changed = byIds
+                ? userNotificationRepository.updateStatusByIds(userId, request.ids(), request.notificationStatus())
+                : userNotificationRepository.updateStatusUpTo(userId, request.upTo(), request.notificationStatus());
+        if (changed > 0) {
+            unreadNotificationCounter.adjust(userId, request.notificationStatus() == NotificationStatus.UNREAD ? changed : -changed);
+            notificationStreamService.publishUnreadCount(userId);
+        }
+        return new UnreadCountDTO(Math.max(0, request.notificationStatus() == NotificationStatus.UNREAD ? unread + changed : unread - changed));
     }
 
     @Override
-    public List<Notification> getUsersNotifications(Principal principal) {
+    public NotificationStatsDTO getStats(Principal principal) {
+        if (principal == null || !permissionService.hasRole(principal, "ROLE_ADMIN"))
+            throw new ForbiddenException("Only administrators can see notification stats.");
+        return new NotificationStatsDTO(
+                notificationStats.receivedEvents(),
+                notificationStats.coalescedEvents(),
+                notificationStats.dispatchedEvents(),
+                notificationOutboxRepository.count(),
+                coalescingWindowMs
+        );
+    }
+
+    @Override
+    public UnreadCountDTO getUnreadCount(Principal principal) {
         if(principal == null)
             throw new ResourceNotFoundException("User not found");
-        User user = userService.getUserByEmail(principal.getName());
-        return user.getNotificationList();
+        return new UnreadCountDTO(unreadNotificationCounter.get(userService.getUserId(principal)));
     }
 
     @Override
-    public List<Notification> getUsersNotificationsByStatus(Principal principal, NotificationStatus notificationStatus) {
+    public Notification deleteNotificationById(Long id) {
+        return null;
+    }
+
+    @Override
+    public NotificationPageDTO getUsersNotifications(NotificationStatus notificationStatus, Long cursor, int limit, Principal principal) {
         if(principal == null)
             throw new ResourceNotFoundException("User not found");
-        return userService.getUsersNotificationsByStatus(principal, notificationStatus);
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new BadRequestException("Limit must be between 1 and %d.".formatted(MAX_PAGE_SIZE));
+
+        Long userId = userService.getUserId(principal);
+        long from = cursor == null ? Long.MAX_VALUE : cursor;
+        List<NotificationDTO> items = notificationStatus == null
+                ? userNotificationRepository.findPage(userId, from, Limit.of(limit))
+                : userNotificationRepository.findPageByStatus(userId, notificationStatus, from, Limit.of(limit));
+
+        Long nextCursor = items.size() < limit ? null : items.get(items.size() - 1).id();
+        return new NotificationPageDTO(items, nextCursor);
     }
 }
@@ -0,0 +1,37 @@
+package project.backend.courses.notification.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// counters of this node since startup
+@Component
+public class NotificationStats {
+
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder coalescedEvents = new LongAdder();
+    private final LongAdder dispatchedEvents = new LongAdder();
+
+    void received(boolean coalesced) {
+        receivedEvents.increment();
+        if (coalesced) {
+            coalescedEvents.increment();
+        }
+    }
+
+    void dispatched() {
+        dispatchedEvents.increment();
+    }
+
+    long receivedEvents() {
+        return receivedEvents.sum();
+    }
+
+    long coalescedEvents() {
+        return coalescedEvents.sum();
+    }
+
+    long dispatchedEvents() {
+        return dispatchedEvents.sum();
+    }
+}
@@ -0,0 +1,12 @@
+package project.backend.courses.notification.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+public interface NotificationStreamService {
+    SseEmitter subscribe(Principal principal);
+    // pushes the inbox entries of a fanned out notification to recipients connected to this node
+    void publishNotification(Long notificationId);
+    void publishUnreadCount(Long userId);
+}
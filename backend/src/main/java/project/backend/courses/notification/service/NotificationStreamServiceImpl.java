@@ -0,0 +1,171 @@
+package project.backend.courses.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.backend.courses.notification.dto.NotificationDTO;
+import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.transaction.AfterCommit;
+import project.backend.user.UserService;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/*
+    Open SSE connections per user. A connection is an async servlet response, no thread is held while it is idle.
+    After a fan-out commits, only the inbox rows of users connected to this node are read back and pushed,
+    together with their new unread count. Users connected to another node see the change on their next reconnect.
+    The events themselves are written on notificationStreamExecutor, a client with a full socket buffer blocks one
+    of its threads and never the dispatch worker or the scheduler. Unread counts are read when the event is written,
+    so a count sent late is still the current one.
+ */
+@Slf4j
+@Service
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private static final String CONNECTED_RECIPIENTS_SQL = """
+            SELECT un.id, un.user_id, n.message, un.status, un.created_at
+            FROM user_notification un JOIN notification n ON n.id = un.notification_id
+            WHERE un.notification_id = ? AND un.user_id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final UserService userService;
+    private final long timeoutMs;
+    private final TaskExecutor streamExecutor;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public NotificationStreamServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            UnreadNotificationCounter unreadNotificationCounter,
+            UserService userService,
+            @Value("${application.notifications.stream.timeout-ms:1800000}") long timeoutMs,
+            @Qualifier("notificationStreamExecutor") TaskExecutor streamExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.userService = userService;
+        this.timeoutMs = timeoutMs;
+        this.streamExecutor = streamExecutor;
+    }
+
+    @Override
+    public SseEmitter subscribe(Principal principal) {
+        if (principal == null) {
+            throw new ForbiddenException("You must be logged in to receive notifications.");
+        }
+        Long userId = userService.getUserId(principal);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, SseEmitter.event().name("unread-count").data(unreadCount(userId)));
+        return emitter;
+    }
+
+    @Override
+    public void publishNotification(Long notificationId) {
+        if (!subscribers.isEmpty()) {
+            AfterCommit.run(() -> push(notificationId));
+        }
+    }
+
+    @Override
+    public void publishUnreadCount(Long userId) {
+        if (subscribers.containsKey(userId)) {
+            AfterCommit.run(() -> sendAsync(userId, () -> {
+                long unread = unreadCount(userId);
+                subscribers.getOrDefault(userId, Set.of()).forEach(emitter ->
+                        send(userId, emitter, SseEmitter.event().name("unread-count").data(unread)));
+            }));
+        }
+    }
+
+    // keeps idle connections open through proxies and drops the ones whose client went away
+    @Scheduled(fixedDelayString = "${application.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> sendAsync(userId, () -> emitters.forEach(emitter ->
+                send(userId, emitter, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    private void push(Long notificationId) {
+        Long[] connected = subscribers.keySet().toArray(Long[]::new);
+        if (connected.length == 0) {
+            return;
+        }
+
+        Map<Long, NotificationDTO> delivered = new HashMap<>();
+        jdbcTemplate.query(CONNECTED_RECIPIENTS_SQL,
+                ps -> {
+                    ps.setLong(1, notificationId);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", connected));
+                },
+                rs -> {
+                    delivered.put(rs.getLong("user_id"), new NotificationDTO(
+                            rs.getLong("id"),
+                            rs.getString("message"),
+                            NotificationStatus.valueOf(rs.getString("status")),
+                            rs.getObject("created_at", LocalDateTime.class)));
+                });
+
+        delivered.forEach((userId, notification) -> sendAsync(userId, () -> {
+            Set<SseEmitter> emitters = subscribers.getOrDefault(userId, Set.of());
+            if (emitters.isEmpty()) {
+                return;
+            }
+            long unread = unreadCount(userId);
+            for (SseEmitter emitter : emitters) {
+                if (send(userId, emitter, SseEmitter.event().name("notification").data(notification, MediaType.APPLICATION_JSON))) {
+                    send(userId, emitter, SseEmitter.event().name("unread-count").data(unread));
+                }
+            }
+        }));
+    }
+
+    private void sendAsync(Long userId, Runnable sends) {
+        try {
+            streamExecutor.execute(sends);
+        } catch (TaskRejectedException e) {
+            // the inbox row is already stored, the client sees it on its next unread-count event or reconnect
+            log.warn("Notification stream queue is full, dropping an event for user {}", userId);
+        }
+    }
+
+    private long unreadCount(Long userId) {
+        return unreadNotificationCounter.get(userId);
+    }
+
+    private boolean send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client disconnected, the container completes the emitter
+            remove(userId, emitter);
+            return false;
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
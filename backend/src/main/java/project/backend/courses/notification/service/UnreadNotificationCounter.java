@@ -0,0 +1,120 @@
+package project.backend.courses.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project.backend.courses.notification.dto.UserUnreadCount;
+import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.repository.UserNotificationRepository;
+import project.backend.transaction.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Unread counts of recently active users. A count is loaded once from the (user_id, status) index of
+    user_notification, which stays the source of truth, and then only adjusted: +1 for every delivered
+    notification and +-1 for every status change, applied after the change commits.
+    Deltas racing with the initial load or made on other nodes can make a count drift, so the cached counts are
+    periodically recomputed in batches. Users idle for longer than the reconcile interval are dropped.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserNotificationRepository userNotificationRepository;
+    private final int maxUsers;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(
+            UserNotificationRepository userNotificationRepository,
+            @Value("${application.notifications.unread.max-users:100000}") int maxUsers) {
+        this.userNotificationRepository = userNotificationRepository;
+        this.maxUsers = maxUsers;
+    }
+
+    public long get(Long userId) {
+        Counter counter = counters.get(userId);
+        if (counter == null) {
+            long unread = userNotificationRepository.countByUserIdAndStatus(userId, NotificationStatus.UNREAD);
+            if (counters.size() >= maxUsers) {
+                return unread;
+            }
+            counter = counters.computeIfAbsent(userId, id -> new Counter(unread));
+        }
+        counter.read = true;
+        return Math.max(0, counter.unread.sum());
+    }
+
+    public void adjust(Long userId, long delta) {
+        if (delta != 0) {
+            AfterCommit.run(() -> {
+                Counter counter = counters.get(userId);
+                if (counter != null) {
+                    counter.unread.add(delta);
+                }
+            });
+        }
+    }
+
+    // users that are not cached are skipped, their count is loaded from the table when it is asked for
+    public void onDelivered(Long notificationId) {
+        if (counters.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            for (List<Long> batch : batches(List.copyOf(counters.keySet()))) {
+                for (Long userId : userNotificationRepository.findRecipientsAmong(notificationId, batch)) {
+                    Counter counter = counters.get(userId);
+                    if (counter != null) {
+                        counter.unread.increment();
+                    }
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${application.notifications.unread.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        counters.values().removeIf(counter -> !counter.read);
+        counters.values().forEach(counter -> counter.read = false);
+
+        for (List<Long> batch : batches(List.copyOf(counters.keySet()))) {
+            Map<Long, Long> actual = new HashMap<>();
+            for (UserUnreadCount count : userNotificationRepository.countUnreadByUserIds(batch)) {
+                actual.put(count.userId(), count.unreadCount());
+            }
+            for (Long userId : batch) {
+                Counter counter = counters.get(userId);
+                if (counter != null) {
+                    counter.unread.reset();
+                    counter.unread.add(actual.getOrDefault(userId, 0L));
+                }
+            }
+        }
+    }
+
+    private static List<List<Long>> batches(List<Long> userIds) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+            batches.add(userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size())));
+        }
+        return batches;
+    }
+
+    private static class Counter {
+        final LongAdder unread = new LongAdder();
+        // set on every read, cleared by reconcile
+        volatile boolean read;
+
+        Counter(long unread) {
+            this.unread.add(unread);
+        }
+    }
+}
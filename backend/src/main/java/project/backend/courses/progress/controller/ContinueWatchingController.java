@@ -0,0 +1,11 @@
+package project.backend.courses.progress.controller;
+
+import org.springframework.http.ResponseEntity;
+import project.backend.courses.progress.dto.ContinueWatchingDTO;
+
+import java.security.Principal;
+import java.util.List;
+
+public interface ContinueWatchingController {
+    ResponseEntity<List<ContinueWatchingDTO>> getContinueWatching(Principal principal);
+}
@@ -0,0 +1,26 @@
+package project.backend.courses.progress.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import project.backend.courses.progress.dto.ContinueWatchingDTO;
+import project.backend.courses.progress.service.ContinueWatchingService;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "api/v1/me")
+public class ContinueWatchingControllerImpl implements ContinueWatchingController {
+    private final ContinueWatchingService continueWatchingService;
+
+    @Override
+    @GetMapping("/continue")
+    public ResponseEntity<List<ContinueWatchingDTO>> getContinueWatching(Principal principal) {
+        return new ResponseEntity<>(continueWatchingService.getContinueWatching(principal), HttpStatus.OK);
+    }
+}
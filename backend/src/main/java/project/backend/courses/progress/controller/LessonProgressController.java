@@ -0,0 +1,10 @@
+package project.backend.courses.progress.controller;
+
+import org.springframework.http.ResponseEntity;
+import project.backend.courses.progress.dto.LessonProgressRequest;
+
+import java.security.Principal;
+
+public interface LessonProgressController {
+    ResponseEntity<Void> recordProgress(Long lessonId, LessonProgressRequest request, Principal principal);
+}
@@ -0,0 +1,29 @@
+package project.backend.courses.progress.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import project.backend.courses.progress.dto.LessonProgressRequest;
+import project.backend.courses.progress.service.LessonProgressService;
+
+import java.security.Principal;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "api/v1/lessons")
+public class LessonProgressControllerImpl implements LessonProgressController {
+    private final LessonProgressService lessonProgressService;
+
+    // heartbeats are buffered and persisted by the next flush, hence 202
+    @Override
+    @PutMapping("/{lessonId}/progress")
+    public ResponseEntity<Void> recordProgress(
+            @PathVariable("lessonId") Long lessonId,
+            @RequestBody LessonProgressRequest request,
+            Principal principal
+    ) {
+        lessonProgressService.recordProgress(lessonId, request, principal);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+}
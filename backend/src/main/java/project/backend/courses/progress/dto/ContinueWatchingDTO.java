@@ -0,0 +1,14 @@
+package project.backend.courses.progress.dto;
+
+import java.time.LocalDateTime;
+
+public record ContinueWatchingDTO(
+        Long courseId,
+        String courseTitle,
+        String courseImageUrl,
+        Long lessonId,
+        String lessonTitle,
+        int positionSeconds,
+        LocalDateTime updatedAt
+) {
+}
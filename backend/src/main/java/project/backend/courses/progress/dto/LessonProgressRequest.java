@@ -0,0 +1,7 @@
+package project.backend.courses.progress.dto;
+
+public record LessonProgressRequest(
+        int positionSeconds,
+        boolean completed
+) {
+}
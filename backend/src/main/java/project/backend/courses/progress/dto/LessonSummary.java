@@ -0,0 +1,10 @@
+package project.backend.courses.progress.dto;
+
+public record LessonSummary(
+        Long lessonId,
+        String lessonTitle,
+        Long courseId,
+        String courseTitle,
+        String courseImageUrl
+) {
+}
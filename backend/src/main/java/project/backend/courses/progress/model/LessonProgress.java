@@ -0,0 +1,49 @@
+package project.backend.courses.progress.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/*
+    Plain id columns instead of associations: rows are written in batches by LessonProgressServiceImpl.flush
+    with native upserts and read back as a whole, the entities are never navigated.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "lesson_progress",
+        uniqueConstraints = @UniqueConstraint(name = "lesson_progress_user_lesson_key", columnNames = {"user_id", "lesson_id"})
+)
+public class LessonProgress {
+    @SequenceGenerator(
+            name = "lesson_progress_sequence",
+            sequenceName = "lesson_progress_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "lesson_progress_sequence"
+    )
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "lesson_id", nullable = false)
+    private Long lessonId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    private int positionSeconds;
+
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package project.backend.courses.progress.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import project.backend.courses.progress.dto.LessonSummary;
+import project.backend.courses.progress.model.LessonProgress;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LessonProgressRepository extends JpaRepository<LessonProgress, Long> {
+    @Query("SELECT p.lessonId FROM LessonProgress p WHERE p.userId = :userId AND p.courseId = :courseId AND p.completed = true")
+    List<Long> findCompletedLessonIds(Long userId, Long courseId);
+
+    @Query("""
+            SELECT new project.backend.courses.progress.dto.LessonSummary(l.id, l.title, c.id, c.title, c.imageUrl)
+            FROM Lesson l JOIN l.course c
+            WHERE l.id IN :lessonIds
+            """)
+    List<LessonSummary> findLessonSummaries(Collection<Long> lessonIds);
+}
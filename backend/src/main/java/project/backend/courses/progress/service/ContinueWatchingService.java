@@ -0,0 +1,12 @@
+package project.backend.courses.progress.service;
+
+import project.backend.courses.progress.dto.ContinueWatchingDTO;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ContinueWatchingService {
+    List<ContinueWatchingDTO> getContinueWatching(Principal principal);
+    void onProgress(Long userId, Long courseId, Long lessonId, int positionSeconds, LocalDateTime updatedAt);
+}
@@ -0,0 +1,197 @@
+package project.backend.courses.progress.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import project.backend.courses.progress.dto.ContinueWatchingDTO;
+import project.backend.courses.progress.dto.LessonSummary;
+import project.backend.courses.progress.repository.LessonProgressRepository;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+    Every cached user keeps the last position of their most recently watched courses, at most maxCourses of them,
+    updated by each heartbeat. A request only reads that short list and resolves titles for it, so the cost
+    does not depend on how many courses the user owns. Users missing from the cache are rebuilt from lesson_progress:
+    an empty entry is installed first so heartbeats arriving during the query are kept, then the heartbeats still
+    waiting in the write-behind buffer are replayed into it and the table rows are merged under them.
+ */
+@Service
+public class ContinueWatchingServiceImpl implements ContinueWatchingService {
+
+    // latest lesson of every course, newest courses first
+    static final String RECENT_COURSES_SQL = """
+            SELECT course_id, lesson_id, position_seconds, updated_at FROM (
+                SELECT DISTINCT ON (course_id) course_id, lesson_id, position_seconds, updated_at
+                FROM lesson_progress
+                WHERE user_id = ?
+                ORDER BY course_id, updated_at DESC
+            ) latest
+            ORDER BY updated_at DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final UserService userService;
+    // LessonProgressServiceImpl reports every heartbeat here, so it can only be looked up lazily
+    private final ObjectProvider<LessonProgressService> lessonProgressService;
+    private final int maxCourses;
+    private final int maxUsers;
+
+    // guarded by this, access ordered so the least recently active users are evicted first
+    private final LinkedHashMap<Long, RecentCourses> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ContinueWatchingServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            LessonProgressRepository lessonProgressRepository,
+            UserService userService,
+            ObjectProvider<LessonProgressService> lessonProgressService,
+            @Value("${application.progress.continue.max-courses:10}") int maxCourses,
+            @Value("${application.progress.continue.max-users:50000}") int maxUsers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lessonProgressRepository = lessonProgressRepository;
+        this.userService = userService;
+        this.lessonProgressService = lessonProgressService;
+        this.maxCourses = maxCourses;
+        this.maxUsers = maxUsers;
+    }
+
+    @Override
+    public List<ContinueWatchingDTO> getContinueWatching(Principal principal) {
+        if (principal == null) {
+            throw new ForbiddenException("You must be logged in to see your courses.");
+        }
+        Long userId = userService.getUserId(principal);
+
+        List<RecentLesson> recentLessons = getRecentCourses(userId).snapshot();
+        if (recentLessons.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, LessonSummary> lessons = lessonProgressRepository
+                .findLessonSummaries(recentLessons.stream().map(RecentLesson::lessonId).toList()).stream()
+                .collect(Collectors.toMap(LessonSummary::lessonId, Function.identity()));
+
+        // lessons deleted since they were watched are skipped
+        return recentLessons.stream()
+                .filter(recent -> lessons.containsKey(recent.lessonId()))
+                .map(recent -> {
+                    LessonSummary lesson = lessons.get(recent.lessonId());
+                    return new ContinueWatchingDTO(
+                            lesson.courseId(),
+                            lesson.courseTitle(),
+                            lesson.courseImageUrl(),
+                            lesson.lessonId(),
+                            lesson.lessonTitle(),
+                            recent.positionSeconds(),
+                            recent.updatedAt()
+                    );
+                })
+                .toList();
+    }
+
+    // users that are not cached are left alone, they are rebuilt from the table when they ask for the feed
+    @Override
+    public void onProgress(Long userId, Long courseId, Long lessonId, int positionSeconds, LocalDateTime updatedAt) {
+        RecentCourses recentCourses;
+        synchronized (this) {
+            recentCourses = users.get(userId);
+        }
+        if (recentCourses != null) {
+            recentCourses.touch(new RecentLesson(courseId, lessonId, positionSeconds, updatedAt));
+        }
+    }
+
+    private RecentCourses getRecentCourses(Long userId) {
+        RecentCourses recentCourses;
+        synchronized (this) {
+            recentCourses = users.get(userId);
+            if (recentCourses == null) {
+                recentCourses = new RecentCourses(maxCourses);
+                users.put(userId, recentCourses);
+                Iterator<RecentCourses> eldest = users.values().iterator();
+                while (users.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        if (recentCourses.isLoaded()) {
+            return recentCourses;
+        }
+
+        // a concurrent request for the same user may load it as well, merging the same rows twice is harmless
+        try {
+            lessonProgressService.getObject().replayPending(userId);
+            recentCourses.load(jdbcTemplate.query(RECENT_COURSES_SQL,
+                    (rs, rowNum) -> new RecentLesson(
+                            rs.getLong("course_id"),
+                            rs.getLong("lesson_id"),
+                            rs.getInt("position_seconds"),
+                            rs.getObject("updated_at", LocalDateTime.class)),
+                    userId, maxCourses));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                users.remove(userId, recentCourses);
+            }
+            throw e;
+        }
+        return recentCourses;
+    }
+
+    private record RecentLesson(Long courseId, Long lessonId, int positionSeconds, LocalDateTime updatedAt) {
+    }
+
+    // one entry per course, most recent first
+    private static class RecentCourses {
+        private final int maxCourses;
+        private final LinkedList<RecentLesson> lessons = new LinkedList<>();
+        private boolean loaded;
+
+        RecentCourses(int maxCourses) {
+            this.maxCourses = maxCourses;
+        }
+
+        synchronized void touch(RecentLesson lesson) {
+            lessons.removeIf(recent -> recent.courseId().equals(lesson.courseId()));
+            lessons.addFirst(lesson);
+            if (lessons.size() > maxCourses) {
+                lessons.removeLast();
+            }
+        }
+
+        // rows read from the table never replace a newer position recorded while they were loaded
+        synchronized void load(List<RecentLesson> rows) {
+            for (RecentLesson row : rows) {
+                boolean newer = lessons.stream()
+                        .filter(recent -> recent.courseId().equals(row.courseId()))
+                        .allMatch(recent -> recent.updatedAt().isBefore(row.updatedAt()));
+                if (newer) {
+                    lessons.removeIf(recent -> recent.courseId().equals(row.courseId()));
+                    lessons.add(row);
+                }
+            }
+            lessons.sort(Comparator.comparing(RecentLesson::updatedAt).reversed());
+            while (lessons.size() > maxCourses) {
+                lessons.removeLast();
+            }
+            loaded = true;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized List<RecentLesson> snapshot() {
+            return List.copyOf(lessons);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package project.backend.courses.progress.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import project.backend.courses.completed.repository.CompletedCourseRepository;
+import project.backend.courses.completed.service.CompletedCourseService;
+import project.backend.courses.lesson.repository.LessonRepository;
+import project.backend.courses.progress.repository.LessonProgressRepository;
+import project.backend.transaction.AfterCommit;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Completes a course as soon as the learner has completed every lesson of it. Each tracked (user, course)
+    keeps a bitset over the lesson positions of the course, so a completed lesson costs one bit update and
+    progress rows are only read when a learner is loaded into the bounded cache.
+ */
+@Slf4j
+@Component
+public class CourseCompletionTracker {
+
+    private final LessonRepository lessonRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final CompletedCourseRepository completedCourseRepository;
+    private final CompletedCourseService completedCourseService;
+    private final int maxTrackedLearners;
+
+    private final Map<Long, CourseLessons> courseLessons = new ConcurrentHashMap<>();
+    // guarded by this, access ordered so the least recently active learners are evicted first
+    private final LinkedHashMap<LearnerKey, LearnerProgress> learners = new LinkedHashMap<>(16, 0.75f, true);
+
+    public CourseCompletionTracker(
+            LessonRepository lessonRepository,
+            LessonProgressRepository lessonProgressRepository,
+            CompletedCourseRepository completedCourseRepository,
+            CompletedCourseService completedCourseService,
+            @Value("${application.progress.completion.max-tracked-learners:100000}") int maxTrackedLearners) {
+        this.lessonRepository = lessonRepository;
+        this.lessonProgressRepository = lessonProgressRepository;
+        this.completedCourseRepository = completedCourseRepository;
+        this.completedCourseService = completedCourseService;
+        this.maxTrackedLearners = maxTrackedLearners;
+    }
+
+    // called with persisted progress only, so a learner loaded from the database is never behind the cache
+    public void onLessonCompleted(Long userId, Long courseId, Long lessonId) {
+        CourseLessons lessons = getCourseLessons(courseId);
+        Integer position = lessons.positions().get(lessonId);
+        if (position == null) {
+            // lesson was deleted or moved to another course
+            return;
+        }
+
+        LearnerKey key = new LearnerKey(userId, courseId);
+        LearnerProgress progress;
+        synchronized (this) {
+            progress = learners.get(key);
+        }
+        if (progress == null || progress.lessons != lessons) {
+            LearnerProgress loaded = load(userId, courseId, lessons);
+            synchronized (this) {
+                progress = learners.get(key);
+                if (progress == null || progress.lessons != lessons) {
+                    progress = loaded;
+                    learners.put(key, progress);
+                    evictLeastRecentlyActive();
+                }
+            }
+        }
+
+        boolean courseCompleted;
+        synchronized (progress) {
+            courseCompleted = progress.complete(position);
+        }
+        if (courseCompleted) {
+            try {
+                completedCourseService.completeCourse(userId, courseId);
+            } catch (RuntimeException e) {
+                log.error("Could not complete course {} for user {}", courseId, userId, e);
+                synchronized (this) {
+                    learners.remove(key);
+                }
+            }
+        }
+    }
+
+    // lesson positions are cached per course, every change to the lessons of a course must drop them
+    public void invalidateCourse(Long courseId) {
+        // otherwise a concurrent reload could cache the lessons as they were before the commit
+        AfterCommit.run(() -> courseLessons.remove(courseId));
+    }
+
+    private CourseLessons getCourseLessons(Long courseId) {
+        CourseLessons lessons = courseLessons.get(courseId);
+        if (lessons == null) {
+            List<Long> lessonIds = lessonRepository.findIdsByCourseIdOrderByLessonNumber(courseId);
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < lessonIds.size(); i++) {
+                positions.put(lessonIds.get(i), i);
+            }
+            lessons = new CourseLessons(Map.copyOf(positions));
+            CourseLessons existing = courseLessons.putIfAbsent(courseId, lessons);
+            if (existing != null) {
+                lessons = existing;
+            }
+        }
+        return lessons;
+    }
+
+    private LearnerProgress load(Long userId, Long courseId, CourseLessons lessons) {
+        LearnerProgress progress = new LearnerProgress(lessons, completedCourseRepository.existsByUserIdAndCourseId(userId, courseId));
+        for (Long lessonId : lessonProgressRepository.findCompletedLessonIds(userId, courseId)) {
+            Integer position = lessons.positions().get(lessonId);
+            if (position != null) {
+                progress.complete(position);
+            }
+        }
+        return progress;
+    }
+
+    private void evictLeastRecentlyActive() {
+        Iterator<LearnerProgress> eldest = learners.values().iterator();
+        while (learners.size() > maxTrackedLearners && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private record LearnerKey(Long userId, Long courseId) {
+    }
+
+    private record CourseLessons(Map<Long, Integer> positions) {
+    }
+
+    private static class LearnerProgress {
+        private final CourseLessons lessons;
+        private final BitSet completedLessons = new BitSet();
+        private int completedCount;
+        private boolean courseCompleted;
+
+        LearnerProgress(CourseLessons lessons, boolean courseCompleted) {
+            this.lessons = lessons;
+            this.courseCompleted = courseCompleted;
+        }
+
+        // returns true exactly once, when the last missing lesson is completed
+        boolean complete(int position) {
+            if (!completedLessons.get(position)) {
+                completedLessons.set(position);
+                completedCount++;
+            }
+            if (courseCompleted || completedCount < lessons.positions().size()) {
+                return false;
+            }
+            courseCompleted = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package project.backend.courses.progress.service;
+
+import project.backend.courses.progress.dto.LessonProgressRequest;
+
+import java.security.Principal;
+
+public interface LessonProgressService {
+    void recordProgress(Long lessonId, LessonProgressRequest request, Principal principal);
+    void flush();
+    // hands the heartbeats of the user that were not flushed yet to ContinueWatchingService.onProgress
+    void replayPending(Long userId);
+    // drops the cached course of a lesson that was deleted or moved, after the surrounding transaction commits
+    void invalidateLesson(Long lessonId);
+}
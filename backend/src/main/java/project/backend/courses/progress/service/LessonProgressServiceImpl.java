@@ -0,0 +1,190 @@
+package project.backend.courses.progress.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import project.backend.courses.lesson.repository.LessonRepository;
+import project.backend.courses.progress.dto.LessonProgressRequest;
+import project.backend.exception.types.BadRequestException;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.transaction.AfterCommit;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Write-behind buffer for progress heartbeats. Every (user, lesson) pair keeps only its latest heartbeat
+    until the next flush, which writes all pending rows with batched upserts, so the number of writes
+    depends on the number of active viewers per flush interval and not on the heartbeat rate.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LessonProgressServiceImpl implements LessonProgressService {
+
+    static final int BATCH_SIZE = 500;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO lesson_progress (id, user_id, lesson_id, course_id, position_seconds, completed, updated_at)
+            VALUES (nextval('lesson_progress_sequence'), ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, lesson_id) DO UPDATE SET
+                course_id = EXCLUDED.course_id,
+                position_seconds = EXCLUDED.position_seconds,
+                completed = lesson_progress.completed OR EXCLUDED.completed,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LessonRepository lessonRepository;
+    private final UserService userService;
+    private final CourseCompletionTracker courseCompletionTracker;
+    private final ContinueWatchingService continueWatchingService;
+
+    // ConcurrentHashMap locks per bin, so heartbeats of different viewers do not contend
+    private final Map<ProgressKey, PendingProgress> pending = new ConcurrentHashMap<>();
+    // lessons looked up once the cache is full are read from the database on every heartbeat
+    private final Map<Long, Long> lessonCourses = new ConcurrentHashMap<>();
+
+    @Value("${application.progress.lesson-courses.max-entries:100000}")
+    private int maxLessonCourses;
+
+    @Override
+    public void recordProgress(Long lessonId, LessonProgressRequest request, Principal principal) {
+        if (principal == null) {
+            throw new ForbiddenException("You must be logged in to record progress.");
+        }
+        if (request.positionSeconds() < 0) {
+            throw new BadRequestException("Position cannot be negative.");
+        }
+        Long userId = userService.getUserId(principal);
+        Long courseId = getCourseId(lessonId);
+        LocalDateTime now = LocalDateTime.now();
+
+        pending.merge(
+                new ProgressKey(userId, lessonId),
+                new PendingProgress(courseId, request.positionSeconds(), request.completed(), now),
+                PendingProgress::merge
+        );
+        continueWatchingService.onProgress(userId, courseId, lessonId, request.positionSeconds(), now);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${application.progress.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> rows = new ArrayList<>();
+        for (ProgressKey key : pending.keySet()) {
+            PendingProgress progress = pending.remove(key);
+            if (progress != null) {
+                rows.add(new Object[]{key.userId(), key.lessonId(), progress.courseId(),
+                        progress.positionSeconds(), progress.completed(), progress.updatedAt()});
+            }
+        }
+
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+            List<Object[]> written;
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+                written = batch;
+            } catch (DataIntegrityViolationException e) {
+                // one bad row (e.g. of a lesson deleted since the heartbeat) fails the whole batch, the rest is still written
+                written = writeOneByOne(batch);
+            } catch (RuntimeException e) {
+                log.error("Could not flush {} progress rows, retrying with the next flush", batch.size(), e);
+                batch.forEach(this::requeue);
+                continue;
+            }
+            written.stream()
+                    .filter(row -> (Boolean) row[4])
+                    .forEach(this::trackCompletion);
+        }
+    }
+
+    // rows violating a constraint can never be written and are dropped, any other failure is retried with the next flush
+    private List<Object[]> writeOneByOne(List<Object[]> batch) {
+        List<Object[]> written = new ArrayList<>();
+        for (Object[] row : batch) {
+            try {
+                jdbcTemplate.update(UPSERT_SQL, row);
+                written.add(row);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dropping progress of user {} for lesson {}: {}", row[0], row[1], e.getMostSpecificCause().getMessage());
+            } catch (RuntimeException e) {
+                log.error("Could not flush progress of user {} for lesson {}, retrying with the next flush", row[0], row[1], e);
+                requeue(row);
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public void replayPending(Long userId) {
+        pending.forEach((key, progress) -> {
+            if (key.userId().equals(userId)) {
+                continueWatchingService.onProgress(userId, progress.courseId(), key.lessonId(), progress.positionSeconds(), progress.updatedAt());
+            }
+        });
+    }
+
+    @Override
+    public void invalidateLesson(Long lessonId) {
+        // otherwise a concurrent heartbeat could cache the course the lesson had before the commit
+        AfterCommit.run(() -> lessonCourses.remove(lessonId));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private Long getCourseId(Long lessonId) {
+        Long courseId = lessonCourses.get(lessonId);
+        if (courseId == null) {
+            courseId = lessonRepository.findCourseIdById(lessonId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id " + lessonId));
+            if (lessonCourses.size() < maxLessonCourses) {
+                lessonCourses.put(lessonId, courseId);
+            }
+        }
+        return courseId;
+    }
+
+    private void trackCompletion(Object[] row) {
+        try {
+            courseCompletionTracker.onLessonCompleted((Long) row[0], (Long) row[2], (Long) row[1]);
+        } catch (RuntimeException e) {
+            log.error("Could not track completion of lesson {} for user {}", row[1], row[0], e);
+        }
+    }
+
+    private void requeue(Object[] row) {
+        pending.merge(
+                new ProgressKey((Long) row[0], (Long) row[1]),
+                new PendingProgress((Long) row[2], (Integer) row[3], (Boolean) row[4], (LocalDateTime) row[5]),
+                PendingProgress::merge
+        );
+    }
+
+    private record ProgressKey(Long userId, Long lessonId) {
+    }
+
+    private record PendingProgress(Long courseId, int positionSeconds, boolean completed, LocalDateTime updatedAt) {
+
+        // the latest position wins, completion is never undone by a later heartbeat
+        PendingProgress merge(PendingProgress other) {
+            PendingProgress latest = other.updatedAt().isBefore(updatedAt) ? this : other;
+            return new PendingProgress(latest.courseId(), latest.positionSeconds(), completed || other.completed(), latest.updatedAt());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package project.backend.courses.utils.file.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class StoredBlob {
+    @SequenceGenerator(
+            name = "stored_blob_sequence",
+            sequenceName = "stored_blob_sequence",
+            allocationSize = 1
+    )
+    @Id
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "stored_blob_sequence"
+    )
+    private Long id;
+
+    // hex encoded SHA-256 of the content
+    @Column(nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    // key of the single stored copy, shared by every lesson or course referencing this content
+    @Column(nullable = false, unique = true)
+    private String keyName;
+
+    private int referenceCount;
+}
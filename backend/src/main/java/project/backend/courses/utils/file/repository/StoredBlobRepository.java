@@ -0,0 +1,29 @@
+package project.backend.courses.utils.file.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import project.backend.courses.utils.file.model.StoredBlob;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, Long> {
+    Optional<StoredBlob> findByContentHash(String contentHash);
+
+    boolean existsByKeyName(String keyName);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.referenceCount = b.referenceCount + 1 WHERE b.contentHash = :contentHash")
+    int incrementReferenceCount(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.referenceCount = b.referenceCount - 1 WHERE b.keyName = :keyName AND b.referenceCount > 0")
+    int decrementReferenceCount(@Param("keyName") String keyName);
+
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.keyName = :keyName AND b.referenceCount = 0")
+    int deleteUnreferenced(@Param("keyName") String keyName);
+}
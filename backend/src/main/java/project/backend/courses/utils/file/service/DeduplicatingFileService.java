@@ -0,0 +1,193 @@
+package project.backend.courses.utils.file.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.backend.courses.utils.file.model.StoredBlob;
+import project.backend.courses.utils.file.repository.StoredBlobRepository;
+import project.backend.transaction.AfterCommit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+
+/*
+    Content-addressed layout on top of the storage file service: every completed upload is hashed and
+    identical content is kept only once. Hashing streams the whole object, so it runs on the bounded
+    fileHashExecutor after the caller commits, and the owner is moved to the stored copy in the same
+    transaction that registers it. deleteFile only removes the object once the last reference is released.
+    Keys that were never registered (uploaded before deduplication was enabled) are deleted directly.
+    Registration commits on its own so a lost insert race can be retried inside a caller's transaction,
+    reference releases join the caller's transaction and objects are physically removed only after it commits.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "application.files.deduplication.enabled", havingValue = "true")
+public class DeduplicatingFileService implements FileService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileService storage;
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate registrationTemplate;
+    private final TaskExecutor hashExecutor;
+
+    public DeduplicatingFileService(
+            @Qualifier(FileService.STORAGE) FileService storage,
+            StoredBlobRepository storedBlobRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("fileHashExecutor") TaskExecutor hashExecutor) {
+        this.storage = storage;
+        this.storedBlobRepository = storedBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registrationTemplate = new TransactionTemplate(transactionManager);
+        this.registrationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hashExecutor = hashExecutor;
+    }
+
+    @Override
+    public CompletableFuture<String> completeUpload(String keyName, BiPredicate<String, String> replaceKey) {
+        if (storedBlobRepository.existsByKeyName(keyName)) {
+            return CompletableFuture.completedFuture(keyName);
+        }
+
+        CompletableFuture<String> storedKey = new CompletableFuture<>();
+        AfterCommit.run(() -> {
+            try {
+                hashExecutor.execute(() -> {
+                    try {
+                        storedKey.complete(deduplicate(keyName, replaceKey));
+                    } catch (RuntimeException e) {
+                        storedKey.completeExceptionally(e);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // the upload is kept as it is, identical content is just stored twice
+                log.warn("File hash queue is full, skipping deduplication of [{}]", keyName);
+                storedKey.complete(keyName);
+            }
+        });
+        return storedKey;
+    }
+
+    @Override
+    public boolean deleteFile(String keyName) {
+        Boolean unreferenced = transactionTemplate.execute(status -> {
+            if (storedBlobRepository.decrementReferenceCount(keyName) == 0) {
+                // not a deduplicated blob (or already released)
+                return !storedBlobRepository.existsByKeyName(keyName);
+            }
+            return storedBlobRepository.deleteUnreferenced(keyName) > 0;
+        });
+
+        if (Boolean.TRUE.equals(unreferenced)) {
+            AfterCommit.run(() -> storage.deleteFile(keyName));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String generateUploadUrl(String keyName, String contentType) {
+        return storage.generateUploadUrl(keyName, contentType);
+    }
+
+    @Override
+    public String generateDownloadUrl(String keyName, String contentType) {
+        return storage.generateDownloadUrl(keyName, contentType);
+    }
+
+    @Override
+    public byte[] readRange(String keyName, long offset, int length) {
+        return storage.readRange(keyName, offset, length);
+    }
+
+    @Override
+    public long getFileSize(String keyName) {
+        return storage.getFileSize(keyName);
+    }
+
+    @Override
+    public InputStream getFile(String keyName) {
+        return storage.getFile(keyName);
+    }
+
+    @Override
+    public void uploadFile(String keyName, byte[] content, String contentType) {
+        storage.uploadFile(keyName, content, contentType);
+    }
+
+    private String deduplicate(String keyName, BiPredicate<String, String> replaceKey) {
+        String contentHash = hash(keyName);
+        String storedKey;
+        try {
+            storedKey = registrationTemplate.execute(status -> registerFor(contentHash, keyName, replaceKey, status));
+        } catch (DataIntegrityViolationException e) {
+            // the same content was registered concurrently, reference that copy instead
+            storedKey = registrationTemplate.execute(status -> registerFor(contentHash, keyName, replaceKey, status));
+        }
+
+        if (storedKey != null && !keyName.equals(storedKey)) {
+            storage.deleteFile(keyName);
+        }
+        return storedKey;
+    }
+
+    private String registerFor(String contentHash, String keyName, BiPredicate<String, String> replaceKey, TransactionStatus status) {
+        String storedKey = register(contentHash, keyName);
+        if (!replaceKey.test(keyName, storedKey)) {
+            // the owner replaced or deleted the upload while it was hashed, nothing references it anymore
+            status.setRollbackOnly();
+            return null;
+        }
+        return storedKey;
+    }
+
+    private String register(String contentHash, String keyName) {
+        if (storedBlobRepository.incrementReferenceCount(contentHash) > 0) {
+            Optional<StoredBlob> existing = storedBlobRepository.findByContentHash(contentHash);
+            if (existing.isPresent()) {
+                return existing.get().getKeyName();
+            }
+        }
+
+        storedBlobRepository.saveAndFlush(StoredBlob.builder()
+                .contentHash(contentHash)
+                .keyName(keyName)
+                .referenceCount(1)
+                .build());
+        return keyName;
+    }
+
+    private String hash(String keyName) {
+        try (DigestInputStream in = new DigestInputStream(storage.getFile(keyName), MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                // digest is updated while streaming, the content is never held in memory
+            }
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
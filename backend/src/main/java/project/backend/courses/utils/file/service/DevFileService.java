@@ -1,11 +1,30 @@
 package project.backend.courses.utils.file.service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import project.backend.exception.types.ResourceNotFoundException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+    Files are read from a local directory so upload post-processing (e.g. video duration extraction)
+    can be tested without S3 - copy sample files under [dev.files.directory] using the key as relative path.
+ */
 @Service
+@Qualifier(FileService.STORAGE)
 @Profile("dev")
 public class DevFileService implements FileService{
+
+    @Value("${dev.files.directory:${java.io.tmpdir}/elearning-platform}")
+    private String filesDirectory;
+
     @Override
     public String generateUploadUrl(String keyName, String contentType) {
         return null;
@@ -17,7 +36,66 @@ public class DevFileService implements FileService{
     }
 
     @Override
-    public void deleteFile(String keyName) {
+    public boolean deleteFile(String keyName) {
+        try {
+            Files.deleteIfExists(resolve(keyName));
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public byte[] readRange(String keyName, long offset, int length) {
+        try (RandomAccessFile file = new RandomAccessFile(existing(keyName).toFile(), "r")) {
+            long available = Math.max(0, file.length() - offset);
+            byte[] bytes = new byte[(int) Math.min(length, available)];
+            file.seek(offset);
+            file.readFully(bytes);
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long getFileSize(String keyName) {
+        try {
+            return Files.size(existing(keyName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream getFile(String keyName) {
+        try {
+            return Files.newInputStream(existing(keyName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void uploadFile(String keyName, byte[] content, String contentType) {
+        try {
+            Path path = resolve(keyName);
+            Files.createDirectories(path.getParent());
+            Files.write(path, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path existing(String keyName) {
+        Path path = resolve(keyName);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("File [%s] not found.".formatted(keyName));
+        }
+        return path;
+    }
 
+    private Path resolve(String keyName) {
+        return Path.of(filesDirectory).resolve(keyName);
     }
 }
@@ -1,8 +1,31 @@
 package project.backend.courses.utils.file.service;
 
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+
 public interface FileService {
 
+    // qualifier of the implementation that actually stores files (S3 or local), see DeduplicatingFileService
+    String STORAGE = "storageFileService";
+
     String generateUploadUrl(String keyName, String contentType);
     String generateDownloadUrl(String keyName, String contentType);
-    void deleteFile(String keyName);
+    // returns false if the object is still referenced by another owner and was kept
+    boolean deleteFile(String keyName);
+
+    // reads at most [length] bytes starting at [offset], fewer if the file ends earlier
+    byte[] readRange(String keyName, long offset, int length);
+    long getFileSize(String keyName);
+    InputStream getFile(String keyName);
+    void uploadFile(String keyName, byte[] content, String contentType);
+
+    /*
+        Called once a presigned upload has finished. An implementation may later move the owner to another key
+        with replaceKey(uploadedKey, storedKey), which returns false if the owner no longer references uploadedKey.
+        The future completes with the key the owner references from then on, or null if it moved on meanwhile.
+     */
+    default CompletableFuture<String> completeUpload(String keyName, BiPredicate<String, String> replaceKey) {
+        return CompletableFuture.completedFuture(keyName);
+    }
 }
@@ -2,15 +2,20 @@ package project.backend.courses.utils.file.service;
 
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
@@ -18,10 +23,12 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.InputStream;
 import java.time.Duration;
 
 
 @Service
+@Qualifier(FileService.STORAGE)
 @Profile("prod")
 @RequiredArgsConstructor
 public class S3FileServiceImpl implements FileService {
@@ -82,13 +89,57 @@ public class S3FileServiceImpl implements FileService {
     }
 
     @Override
-    public void deleteFile(String keyName) {
+    public boolean deleteFile(String keyName) {
         DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
                 .bucket(bucketName)
                 .key(keyName)
                 .build();
 
         s3Client.deleteObject(deleteObjectRequest);
+        return true;
 
     }
+
+    @Override
+    public byte[] readRange(String keyName, long offset, int length) {
+        GetObjectRequest objectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .range("bytes=%d-%d".formatted(offset, offset + length - 1))
+                .build();
+
+        ResponseBytes<GetObjectResponse> response = s3Client.getObjectAsBytes(objectRequest);
+        return response.asByteArray();
+    }
+
+    @Override
+    public long getFileSize(String keyName) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .build();
+
+        return s3Client.headObject(headObjectRequest).contentLength();
+    }
+
+    @Override
+    public InputStream getFile(String keyName) {
+        GetObjectRequest objectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .build();
+
+        return s3Client.getObject(objectRequest);
+    }
+
+    @Override
+    public void uploadFile(String keyName, byte[] content, String contentType) {
+        PutObjectRequest objectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(keyName)
+                .contentType(contentType)
+                .build();
+
+        s3Client.putObject(objectRequest, RequestBody.fromBytes(content));
+    }
 }
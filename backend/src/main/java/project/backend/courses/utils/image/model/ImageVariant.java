@@ -0,0 +1,22 @@
+package project.backend.courses.utils.image.model;
+
+public enum ImageVariant {
+    CARD(400),
+    RETINA(800),
+    HERO(1280);
+
+    private final int width;
+
+    ImageVariant(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    // variants are stored next to the original, e.g. public/courses/1/{uuid}-card.jpg
+    public String keyFor(String originalKey) {
+        return originalKey + "-" + name().toLowerCase() + ".jpg";
+    }
+}
@@ -0,0 +1,114 @@
+package project.backend.courses.utils.image.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import project.backend.courses.utils.file.service.FileService;
+import project.backend.courses.utils.image.model.ImageVariant;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private final FileService fileService;
+    @Value("${application.images.variants.max-pixels:25000000}")
+    private long maxPixels;
+
+    /*
+        Runs on the bounded image executor. The original is decoded once and every variant is scaled
+        from the closest larger intermediate, so each step only halves the image (bilinear halving keeps
+        quality close to area averaging at a fraction of the cost of SCALE_SMOOTH).
+     */
+    @Async("imageVariantExecutor")
+    public CompletableFuture<Void> generateVariants(String imageKey) {
+        BufferedImage source = toRgb(read(imageKey));
+        ImageVariant[] variants = ImageVariant.values();
+        // largest first so every variant can be derived from the previous one
+        for (int i = variants.length - 1; i >= 0; i--) {
+            ImageVariant variant = variants[i];
+            source = downscale(source, variant.getWidth());
+            fileService.uploadFile(variant.keyFor(imageKey), encodeJpeg(source), "image/jpeg");
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // the dimensions come from the header, an oversized image is rejected before its pixels are allocated
+    private BufferedImage read(String imageKey) {
+        try (InputStream file = fileService.getFile(imageKey);
+             ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format [%s]".formatted(imageKey));
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image [%s] has %d pixels, at most %d are allowed".formatted(imageKey, pixels, maxPixels));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BufferedImage downscale(BufferedImage image, int targetWidth) {
+        BufferedImage result = image;
+        while (result.getWidth() > targetWidth) {
+            int width = Math.max(targetWidth, result.getWidth() / 2);
+            int height = Math.max(1, (int) Math.round((double) result.getHeight() * width / result.getWidth()));
+            result = draw(result, width, height);
+        }
+        return result;
+    }
+
+    // drops alpha (transparent PNGs get a white background) since variants are encoded as JPEG
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        return draw(image, image.getWidth(), image.getHeight());
+    }
+
+    private BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,135 @@
+package project.backend.courses.utils.video.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import project.backend.courses.utils.file.service.FileService;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+    Reads the duration of an MP4 file from its moov/mvhd box.
+    Only box headers are fetched with ranged reads, so media data (mdat) is skipped no matter
+    whether moov is placed before it (fast start) or at the end of the file.
+ */
+@Component
+@RequiredArgsConstructor
+public class Mp4DurationReader {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int LARGE_HEADER_SIZE = 16;
+    // version, flags and the largest (version 1) creation/modification/timescale/duration fields
+    private static final int MVHD_FIELDS_SIZE = 4 + 8 + 8 + 4 + 8;
+    private static final int MAX_BOXES = 1024;
+
+    private final FileService fileService;
+
+    public Optional<Duration> readDuration(String keyName) {
+        long fileSize = fileService.getFileSize(keyName);
+
+        Optional<Box> moov = findBox(keyName, 0, fileSize, "moov");
+        if (moov.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<Box> mvhd = findBox(keyName, moov.get().contentOffset(), moov.get().end(), "mvhd");
+        return mvhd.flatMap(box -> readMvhdDuration(keyName, box));
+    }
+
+    private Optional<Box> findBox(String keyName, long from, long to, String type) {
+        long offset = from;
+        for (int i = 0; i < MAX_BOXES && offset + HEADER_SIZE <= to; i++) {
+            ByteBuffer header = ByteBuffer.wrap(fileService.readRange(keyName, offset, (int) Math.min(LARGE_HEADER_SIZE, to - offset)));
+            if (header.remaining() < HEADER_SIZE) {
+                return Optional.empty();
+            }
+
+            long size = Integer.toUnsignedLong(header.getInt());
+            String boxType = readType(header);
+            int headerSize = HEADER_SIZE;
+
+            if (size == 1) {
+                if (header.remaining() < 8) {
+                    return Optional.empty();
+                }
+                size = header.getLong();
+                headerSize = LARGE_HEADER_SIZE;
+            } else if (size == 0) {
+                // box extends to the end of its parent
+                size = to - offset;
+            }
+
+            if (size < headerSize || offset + size > to) {
+                return Optional.empty();
+            }
+
+            if (boxType.equals(type)) {
+                return Optional.of(new Box(offset, headerSize, size));
+            }
+            offset += size;
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Duration> readMvhdDuration(String keyName, Box mvhd) {
+        int length = (int) Math.min(MVHD_FIELDS_SIZE, mvhd.end() - mvhd.contentOffset());
+        ByteBuffer content = ByteBuffer.wrap(fileService.readRange(keyName, mvhd.contentOffset(), length));
+
+        if (content.remaining() < 4) {
+            return Optional.empty();
+        }
+        int version = content.get() & 0xFF;
+        content.position(4);
+
+        long timescale;
+        long duration;
+        if (version == 1) {
+            if (content.remaining() < 28) {
+                return Optional.empty();
+            }
+            content.position(content.position() + 16);
+            timescale = Integer.toUnsignedLong(content.getInt());
+            duration = content.getLong();
+            if (duration == -1) {
+                return Optional.empty();
+            }
+        } else {
+            if (content.remaining() < 16) {
+                return Optional.empty();
+            }
+            content.position(content.position() + 8);
+            timescale = Integer.toUnsignedLong(content.getInt());
+            duration = Integer.toUnsignedLong(content.getInt());
+            if (duration == 0xFFFFFFFFL) {
+                return Optional.empty();
+            }
+        }
+
+        if (timescale == 0 || duration < 0) {
+            return Optional.empty();
+        }
+
+        long seconds = duration / timescale;
+        long nanos = (duration % timescale) * 1_000_000_000L / timescale;
+        return Optional.of(Duration.ofSeconds(seconds, nanos));
+    }
+
+    private String readType(ByteBuffer header) {
+        char[] type = new char[4];
+        for (int i = 0; i < type.length; i++) {
+            type[i] = (char) (header.get() & 0xFF);
+        }
+        return new String(type);
+    }
+
+    private record Box(long offset, int headerSize, long size) {
+        long contentOffset() {
+            return offset + headerSize;
+        }
+
+        long end() {
+            return offset + size;
+        }
+    }
+}
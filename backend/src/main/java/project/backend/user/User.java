@@ -13,7 +13,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import project.backend.carts.cart.model.Cart;
 import project.backend.courses.course.model.Course;
-import project.backend.courses.notification.model.Notification;
 import project.backend.token.Token;
 
 @Data
@@ -41,9 +40,6 @@ public class User implements UserDetails {
     @JsonManagedReference(value = "user-cart")
     private List <Cart> carts;
 
-    @OneToMany
-    private List<Notification> notificationList;
-
     @OneToMany
     private List<Course> courseList;
     @Override
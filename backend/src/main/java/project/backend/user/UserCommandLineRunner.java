@@ -7,8 +7,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 import project.backend.courses.notification.model.Notification;
 import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.model.UserNotification;
 import project.backend.courses.notification.repository.NotificationRepository;
+import project.backend.courses.notification.repository.UserNotificationRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -19,27 +22,39 @@ public class UserCommandLineRunner implements CommandLineRunner {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final NotificationRepository notificationRepository;
+    private final UserNotificationRepository userNotificationRepository;
     @Override
     public void run(String... args) throws Exception {
 
         Notification notification1 = Notification.builder()
                 .message("Welcome to the platform!")
-                .notificationStatus(NotificationStatus.UNREAD)
                 .build();
         notification1 = notificationRepository.save(notification1);
         Notification notification2 = Notification.builder()
                 .message("You have a new notification!")
-                .notificationStatus(NotificationStatus.READ)
                 .build();
         notification2 = notificationRepository.save(notification2);
-        userRepository.save(User.builder()
+        User jan = userRepository.save(User.builder()
                 .email("jan.kowalski@gmail.com")
                 .password(passwordEncoder.encode("password1"))
                 .firstName("Jan")
                 .lastName("Kowalski")
                 .role(Role.USER)
-                .notificationList(List.of(notification1, notification2))
                 .build());
+        userNotificationRepository.saveAll(List.of(
+                UserNotification.builder()
+                        .user(jan)
+                        .notification(notification1)
+                        .status(NotificationStatus.UNREAD)
+                        .createdAt(LocalDateTime.now())
+                        .build(),
+                UserNotification.builder()
+                        .user(jan)
+                        .notification(notification2)
+                        .status(NotificationStatus.READ)
+                        .createdAt(LocalDateTime.now())
+                        .build()
+        ));
 
         userRepository.save(User.builder()
                 .email("michal.wojcik@gmail.com")
@@ -3,8 +3,6 @@ package project.backend.user;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
-import project.backend.courses.notification.model.Notification;
-import project.backend.courses.notification.model.NotificationStatus;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
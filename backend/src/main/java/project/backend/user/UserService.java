@@ -4,8 +4,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import project.backend.courses.notification.model.Notification;
-import project.backend.courses.notification.model.NotificationStatus;
 import project.backend.exception.types.ResourceNotFoundException;
 
 import java.security.Principal;
@@ -58,14 +56,16 @@ public class UserService {
             ));
   }
 
-  public User saveUser(User user) {
-    return repository.save(user);
+  // the jwt filter already loaded the user into the authentication, so no query is needed in that case
+  public Long getUserId(Principal principal) {
+    if (principal instanceof UsernamePasswordAuthenticationToken authentication
+            && authentication.getPrincipal() instanceof User user) {
+      return user.getId();
+    }
+    return getUserByEmail(principal.getName()).getId();
   }
 
-  public List<Notification> getUsersNotificationsByStatus(Principal principal, NotificationStatus notificationStatus) {
-    User user = getUserByEmail(principal.getName());
-    return user.getNotificationList().stream()
-            .filter(notification -> notification.getNotificationStatus() != null && notification.getNotificationStatus().equals(notificationStatus))
-            .collect(Collectors.toList());
+  public User saveUser(User user) {
+    return repository.save(user);
   }
 }
@@ -0,0 +1,5 @@
+-- runs after Hibernate created the tables (spring.jpa.defer-datasource-initialization), before any bean uses them
+
+-- partial indexes cannot be declared on the entity, NotificationOutboxRepository.enqueue relies on this one
+CREATE UNIQUE INDEX IF NOT EXISTS notification_outbox_pending_course_idx
+    ON notification_outbox (course_id) WHERE attempts = 0;
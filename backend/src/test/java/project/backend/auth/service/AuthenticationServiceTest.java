@@ -14,6 +14,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import project.backend.auth.dto.AuthenticationRequest;
 import project.backend.auth.dto.AuthenticationResponse;
 import project.backend.auth.dto.RegisterRequest;
+import project.backend.carts.cartItem.service.CartItemService;
 import project.backend.config.service.JwtService;
 import project.backend.token.Token;
 import project.backend.token.TokenRepository;
@@ -46,6 +47,9 @@ class AuthenticationServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CartItemService cartItemService;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -132,6 +136,29 @@ class AuthenticationServiceTest {
 
         verify(userRepository, times(1)).findByEmail(authenticationRequest.getEmail());
         verify(tokenRepository, times(1)).save(any(Token.class));
+        verifyNoInteractions(cartItemService);
+    }
+
+    @Test
+    void authenticate_MergesGuestCart() {
+        authenticationRequest.setCartId(7L);
+        when(userRepository.findByEmail(authenticationRequest.getEmail())).thenReturn(Optional.of(user));
+
+        ResponseEntity<Object> response = authenticationService.authenticate(authenticationRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(cartItemService, times(1)).mergeGuestCart(7L, user);
+    }
+
+    @Test
+    void authenticate_Successful_WhenGuestCartCannotBeMerged() {
+        authenticationRequest.setCartId(7L);
+        when(userRepository.findByEmail(authenticationRequest.getEmail())).thenReturn(Optional.of(user));
+        doThrow(new RuntimeException("Cart not found")).when(cartItemService).mergeGuestCart(7L, user);
+
+        ResponseEntity<Object> response = authenticationService.authenticate(authenticationRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
     @Test
@@ -6,15 +6,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.carts.cart.dto.CartTotals;
 import project.backend.carts.cart.model.Cart;
 import project.backend.carts.cart.model.CartStatus;
 import project.backend.carts.cart.repository.CartRepository;
 import project.backend.carts.cartItem.model.CartItem;
+import project.backend.carts.entitlement.service.EntitlementService;
 import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.permission.service.PermissionService;
 import project.backend.user.User;
 import project.backend.user.UserService;
 
 import java.math.BigDecimal;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +35,12 @@ class CartServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private PermissionService permissionService;
+
+    @Mock
+    private EntitlementService entitlementService;
+
     @InjectMocks
     private CartServiceImpl cartService;
     private User user;
@@ -44,7 +54,7 @@ class CartServiceImplTest {
                 .id(1L)
                 .user(user)
                 .items(cartItems)
-                .totalPrice(BigDecimal.ZERO)
+                .totalPriceMinor(0)
                 .cartStatus(CartStatus.PENDING)
                 .build();
     }
@@ -91,11 +101,11 @@ class CartServiceImplTest {
     @Test
     void updateCart_ExistingCart_NoConflict() {
         Cart cartDetails = Cart.builder()
-                .totalPrice(BigDecimal.TEN)
                 .cartStatus(CartStatus.COMPLETED)
                 .build();
         when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
         when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.computeTotals(cart.getId())).thenReturn(new CartTotals(0L, 0L));
 
         Cart updatedCart = cartService.updateCart(cart.getId(), cartDetails);
 
@@ -104,6 +114,40 @@ class CartServiceImplTest {
 
         verify(cartRepository, times(1)).findById(cart.getId());
         verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(entitlementService, times(1)).grantCartCourses(cart.getId(), user.getId());
+        verify(cartRepository, never()).setTotals(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void updateCart_CorrectsTotals_WhenItemsDisagreeAtCheckout() {
+        cart.setTotalPriceMinor(10000);
+        cart.setItemCount(1);
+        Cart cartDetails = Cart.builder()
+                .cartStatus(CartStatus.COMPLETED)
+                .build();
+        when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartRepository.computeTotals(cart.getId())).thenReturn(new CartTotals(31999L, 2L));
+
+        Cart updatedCart = cartService.updateCart(cart.getId(), cartDetails);
+
+        assertEquals(new BigDecimal("319.99"), updatedCart.getTotalPrice());
+        assertEquals(2, updatedCart.getItemCount());
+        verify(cartRepository, times(1)).setTotals(cart.getId(), 31999L, 2);
+    }
+
+    @Test
+    void updateCart_AlreadyCompletedCart_DoesNotGrantAgain() {
+        cart.setCartStatus(CartStatus.COMPLETED);
+        Cart cartDetails = Cart.builder()
+                .cartStatus(CartStatus.COMPLETED)
+                .build();
+        when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        cartService.updateCart(cart.getId(), cartDetails);
+
+        verify(entitlementService, never()).grantCartCourses(anyLong(), anyLong());
     }
 
     @Test
@@ -112,7 +156,6 @@ class CartServiceImplTest {
                 .id(cart.getId())
                 .user(cart.getUser())
                 .items(cart.getItems())
-                .totalPrice(BigDecimal.TEN)
                 .cartStatus(CartStatus.PENDING)
                 .build();
         when(cartRepository.findById(cart.getId())).thenReturn(Optional.of(cart));
@@ -225,4 +268,23 @@ class CartServiceImplTest {
         verify(cartRepository, times(1)).findByUserEmailAndCartStatus(user.getEmail(), cart.getCartStatus());
     }
 
-}
\ No newline at end of file
+    @Test
+    void hasBoughtCourse_NoPrincipal() {
+        assertFalse(cartService.hasBoughtCourse(5L, null));
+        verifyNoInteractions(entitlementService);
+    }
+
+    @Test
+    void hasBoughtCourse_ChecksEntitlement() {
+        Principal principal = () -> user.getEmail();
+        when(permissionService.hasRole(principal, "ROLE_ADMIN")).thenReturn(false);
+        when(userService.getUserId(principal)).thenReturn(user.getId());
+        when(entitlementService.hasCourse(user.getId(), 5L)).thenReturn(true);
+        when(entitlementService.hasCourse(user.getId(), 6L)).thenReturn(false);
+
+        assertTrue(cartService.hasBoughtCourse(5L, principal));
+        assertFalse(cartService.hasBoughtCourse(6L, principal));
+        verify(cartRepository, never()).findByUserIdAndCartStatus(anyLong(), any());
+    }
+
+}
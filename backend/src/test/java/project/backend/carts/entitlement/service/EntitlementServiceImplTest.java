@@ -0,0 +1,74 @@
+package project.backend.carts.entitlement.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.carts.entitlement.dto.EntitlementQueryDTO;
+import project.backend.carts.entitlement.repository.EntitlementRepository;
+import project.backend.exception.types.BadRequestException;
+import project.backend.permission.service.PermissionService;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntitlementServiceImplTest {
+
+    @Mock
+    private EntitlementRepository entitlementRepository;
+
+    @Mock
+    private OwnedCourseCache ownedCourseCache;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PermissionService permissionService;
+
+    @InjectMocks
+    private EntitlementServiceImpl entitlementService;
+
+    private final Principal principal = () -> "test@example.com";
+
+    @Test
+    void queryEntitlements_AnswersEveryCourseFromOneLookup() {
+        when(permissionService.hasRole(principal, "ROLE_ADMIN")).thenReturn(false);
+        when(userService.getUserId(principal)).thenReturn(1L);
+        when(ownedCourseCache.ownedAmong(eq(1L), any())).thenReturn(Set.of(2L));
+
+        EntitlementQueryDTO result = entitlementService.queryEntitlements(List.of(3L, 2L, 3L), principal);
+
+        assertThat(result.owned()).containsExactly(
+                org.assertj.core.api.Assertions.entry(3L, false),
+                org.assertj.core.api.Assertions.entry(2L, true)
+        );
+        verify(ownedCourseCache, times(1)).ownedAmong(eq(1L), any());
+    }
+
+    @Test
+    void queryEntitlements_OwnsNothing_WhenAnonymous() {
+        EntitlementQueryDTO result = entitlementService.queryEntitlements(List.of(1L, 2L), null);
+
+        assertThat(result.owned()).containsValues(false, false).doesNotContainValue(true);
+        verifyNoInteractions(ownedCourseCache);
+    }
+
+    @Test
+    void queryEntitlements_RejectsTooManyIds() {
+        List<Long> courseIds = Collections.nCopies(501, 1L);
+
+        assertThatThrownBy(() -> entitlementService.queryEntitlements(courseIds, principal))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
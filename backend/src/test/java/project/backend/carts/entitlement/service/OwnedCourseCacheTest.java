@@ -0,0 +1,77 @@
+package project.backend.carts.entitlement.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.carts.entitlement.repository.EntitlementRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnedCourseCacheTest {
+
+    @Mock
+    private EntitlementRepository entitlementRepository;
+
+    @Test
+    void owns_LoadsOwnedCoursesOncePerUser() {
+        OwnedCourseCache cache = new OwnedCourseCache(entitlementRepository, 10);
+        when(entitlementRepository.findCourseIdsByUserId(1L)).thenReturn(List.of(3L, 70L));
+
+        assertThat(cache.owns(1L, 3L)).isTrue();
+        assertThat(cache.owns(1L, 70L)).isTrue();
+        assertThat(cache.owns(1L, 4L)).isFalse();
+        assertThat(cache.owns(1L, 5000L)).isFalse();
+
+        verify(entitlementRepository, times(1)).findCourseIdsByUserId(1L);
+    }
+
+    @Test
+    void owns_ReloadsAfterInvalidate() {
+        OwnedCourseCache cache = new OwnedCourseCache(entitlementRepository, 10);
+        when(entitlementRepository.findCourseIdsByUserId(1L)).thenReturn(List.of(3L));
+        assertThat(cache.owns(1L, 4L)).isFalse();
+
+        when(entitlementRepository.findCourseIdsByUserId(1L)).thenReturn(List.of(3L, 4L));
+        cache.invalidate(1L);
+
+        assertThat(cache.owns(1L, 4L)).isTrue();
+    }
+
+    @Test
+    void owns_EvictsLeastRecentlyActiveUser_WhenFull() {
+        OwnedCourseCache cache = new OwnedCourseCache(entitlementRepository, 2);
+        when(entitlementRepository.findCourseIdsByUserId(anyLong())).thenReturn(List.of(3L));
+
+        cache.owns(1L, 3L);
+        cache.owns(2L, 3L);
+        cache.owns(1L, 3L);
+        cache.owns(3L, 3L);
+        // user 2 was the least recently active one
+        cache.owns(1L, 3L);
+        cache.owns(2L, 3L);
+
+        verify(entitlementRepository, times(1)).findCourseIdsByUserId(1L);
+        verify(entitlementRepository, times(2)).findCourseIdsByUserId(2L);
+    }
+
+    @Test
+    void ownedAmong_DoesNotCacheBitmap_WhenInvalidatedDuringLoad() {
+        OwnedCourseCache cache = new OwnedCourseCache(entitlementRepository, 10);
+        when(entitlementRepository.findCourseIdsByUserId(1L))
+                .thenAnswer(invocation -> {
+                    // a grant commits while the stale bitmap is being read
+                    cache.invalidate(1L);
+                    return List.of(3L);
+                })
+                .thenReturn(List.of(3L, 4L));
+
+        assertThat(cache.ownedAmong(1L, List.of(3L, 4L))).containsExactly(3L);
+        assertThat(cache.ownedAmong(1L, List.of(3L, 4L))).containsExactlyInAnyOrder(3L, 4L);
+    }
+}
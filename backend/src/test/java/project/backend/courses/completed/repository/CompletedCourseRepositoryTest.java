@@ -0,0 +1,82 @@
+package project.backend.courses.completed.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import project.backend.courses.completed.dto.CompletedCourseSummaryDTO;
+import project.backend.courses.completed.model.CompletedCourse;
+import project.backend.courses.course.model.Course;
+import project.backend.courses.course.repository.CourseRepository;
+import project.backend.user.User;
+import project.backend.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+class CompletedCourseRepositoryTest {
+
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private CompletedCourseRepository underTest;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    private final List<Long> completionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("student@test.com").build());
+        User other = userRepository.save(User.builder().email("other@test.com").build());
+        for (int i = 0; i < 5; i++) {
+            Course course = courseRepository.save(Course.builder().title("Course " + i).imageUrl("image").build());
+            // every completion of the batch carries the same timestamp
+            completionIds.add(complete(user, course).getId());
+            complete(other, course);
+        }
+    }
+
+    @Test
+    void findSummaries_ReturnsEveryCompletionOnce_WhenPageBoundariesFallOnEqualTimestamps() {
+        List<Long> seen = new ArrayList<>();
+        long cursor = Long.MAX_VALUE;
+        List<CompletedCourseSummaryDTO> page;
+        do {
+            page = underTest.findSummaries(user.getId(), cursor, Limit.of(2));
+            page.forEach(summary -> seen.add(summary.completionId()));
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).completionId();
+            }
+        } while (page.size() == 2);
+
+        assertThat(seen).containsExactlyElementsOf(completionIds.reversed());
+    }
+
+    @Test
+    void findSummaries_StartsBelowTheCursor() {
+        List<CompletedCourseSummaryDTO> page = underTest.findSummaries(user.getId(), completionIds.get(3), Limit.of(10));
+
+        assertThat(page).extracting(CompletedCourseSummaryDTO::completionId)
+                .containsExactly(completionIds.get(2), completionIds.get(1), completionIds.get(0));
+        assertThat(page).allSatisfy(summary -> assertThat(summary.completedAt()).isEqualTo(COMPLETED_AT));
+    }
+
+    private CompletedCourse complete(User user, Course course) {
+        return underTest.save(CompletedCourse.builder().user(user).course(course).completedAt(COMPLETED_AT).build());
+    }
+}
@@ -0,0 +1,129 @@
+package project.backend.courses.completed.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateCacheTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private CertificateCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CertificateCache(10, 2, spillDirectory);
+        underTest.clearSpillDirectory();
+    }
+
+    @Test
+    void get_ReturnsCachedContent_WhenFingerprintMatches() {
+        underTest.put(1L, 1L, "John Doe", new byte[]{1, 2});
+
+        assertThat(underTest.get(1L, 1L, "John Doe")).contains(new byte[]{1, 2});
+    }
+
+    @Test
+    void get_ReturnsEmpty_WhenFingerprintChanged() {
+        underTest.put(1L, 1L, "John Doe", new byte[]{1, 2});
+
+        assertThat(underTest.get(1L, 1L, "Jane Doe")).isEmpty();
+    }
+
+    @Test
+    void put_SpillsEldestToDisk_WhenMemoryBudgetExceeded() throws IOException {
+        underTest.put(1L, 1L, "a", new byte[6]);
+        underTest.put(1L, 2L, "b", new byte[6]);
+
+        assertThat(countSpilledFiles()).isEqualTo(1);
+        assertThat(underTest.get(1L, 1L, "a")).hasValueSatisfying(content -> assertThat(content).hasSize(6));
+    }
+
+    @Test
+    void put_DropsEldestSpilledFile_WhenDiskLimitExceeded() throws IOException {
+        for (long courseId = 1; courseId <= 4; courseId++) {
+            underTest.put(1L, courseId, "a", new byte[6]);
+        }
+
+        assertThat(countSpilledFiles()).isEqualTo(2);
+        assertThat(underTest.get(1L, 1L, "a")).isEmpty();
+        assertThat(underTest.get(1L, 3L, "a")).isPresent();
+    }
+
+    @Test
+    void writeThrough_StreamsToOutputAndCachesOnDisk() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        underTest.writeThrough(1L, 1L, "a", out, write(new byte[]{1, 2, 3}));
+
+        assertThat(out.toByteArray()).containsExactly(1, 2, 3);
+        assertThat(countSpilledFiles()).isEqualTo(1);
+        assertThat(underTest.get(1L, 1L, "a")).contains(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    void get_ServesTheCertificateRenderedAfterARename_OnTheNextDownload() throws IOException {
+        underTest.put(1L, 1L, "John Doe", new byte[]{1, 2});
+
+        // first download after the rename misses and renders the new certificate
+        assertThat(underTest.get(1L, 1L, "Johnny Doe")).isEmpty();
+        underTest.writeThrough(1L, 1L, "Johnny Doe", new ByteArrayOutputStream(), write(new byte[]{3, 4}));
+
+        // the second one is served from the cache
+        assertThat(countSpilledFiles()).isEqualTo(1);
+        assertThat(underTest.get(1L, 1L, "Johnny Doe")).contains(new byte[]{3, 4});
+        assertThat(underTest.get(1L, 1L, "John Doe")).isEmpty();
+    }
+
+    @Test
+    void get_DropsTheSpilledFile_WhenFingerprintChanged() throws IOException {
+        underTest.put(1L, 1L, "a", new byte[6]);
+        underTest.put(1L, 2L, "b", new byte[6]);
+
+        assertThat(underTest.get(1L, 1L, "renamed")).isEmpty();
+
+        assertThat(countSpilledFiles()).isZero();
+    }
+
+    @Test
+    void clearSpillDirectory_RemovesOnlySpilledCertificates() throws IOException {
+        Path spilled = Files.createFile(spillDirectory.resolve("1-1-0b5e0f1c.pdf"));
+        Path unrelated = Files.createFile(spillDirectory.resolve("notes.txt"));
+        Path nested = Files.createDirectories(spillDirectory.resolve("keep")).resolve("2-2-1a2b.pdf");
+        Files.createFile(nested);
+
+        underTest.clearSpillDirectory();
+
+        assertThat(spilled).doesNotExist();
+        assertThat(unrelated).exists();
+        assertThat(nested).exists();
+    }
+
+    private static Consumer<OutputStream> write(byte[] content) {
+        return stream -> {
+            try {
+                stream.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private long countSpilledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory).filter(Files::isRegularFile)) {
+            return files.count();
+        }
+    }
+}
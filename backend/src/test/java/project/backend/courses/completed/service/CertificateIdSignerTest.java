@@ -0,0 +1,48 @@
+package project.backend.courses.completed.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateIdSignerTest {
+
+    private final CertificateIdSigner underTest = new CertificateIdSigner("test-signing-key");
+
+    @Test
+    void verify_ReturnsSignedValues_WhenIdIsValid() {
+        LocalDateTime completedAt = LocalDateTime.of(2024, 5, 10, 12, 30, 15, 123_000_000);
+
+        String id = underTest.sign(42L, 1_000_000L, completedAt);
+
+        assertThat(underTest.verify(id)).hasValueSatisfying(certificateId -> {
+            assertThat(certificateId.userId()).isEqualTo(42L);
+            assertThat(certificateId.courseId()).isEqualTo(1_000_000L);
+            assertThat(certificateId.completedAtEpochSecond()).isEqualTo(CertificateIdSigner.toEpochSecond(completedAt));
+        });
+    }
+
+    @Test
+    void verify_ReturnsEmpty_WhenIdIsTampered() {
+        String id = underTest.sign(42L, 7L, LocalDateTime.of(2024, 5, 10, 12, 30));
+        char first = id.charAt(0);
+        String tampered = (first == 'A' ? 'B' : 'A') + id.substring(1);
+
+        assertThat(underTest.verify(tampered)).isEmpty();
+    }
+
+    @Test
+    void verify_ReturnsEmpty_WhenSignedWithAnotherKey() {
+        String id = new CertificateIdSigner("another-key").sign(42L, 7L, LocalDateTime.of(2024, 5, 10, 12, 30));
+
+        assertThat(underTest.verify(id)).isEmpty();
+    }
+
+    @Test
+    void verify_ReturnsEmpty_WhenIdIsMalformed() {
+        assertThat(underTest.verify("not a certificate id")).isEmpty();
+        assertThat(underTest.verify("")).isEmpty();
+        assertThat(underTest.verify("A".repeat(200))).isEmpty();
+    }
+}
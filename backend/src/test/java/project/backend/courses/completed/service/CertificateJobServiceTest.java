@@ -0,0 +1,238 @@
+package project.backend.courses.completed.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import project.backend.courses.completed.dto.CertificateJobDTO;
+import project.backend.courses.completed.dto.CertificateJobRequest;
+import project.backend.courses.completed.dto.CertificateRecipient;
+import project.backend.courses.completed.model.CertificateJobStatus;
+import project.backend.courses.completed.repository.CompletedCourseRepository;
+import project.backend.courses.course.model.Course;
+import project.backend.courses.course.repository.CourseRepository;
+import project.backend.exception.types.ConflictException;
+import project.backend.exception.types.ForbiddenException;
+import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.permission.service.PermissionService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateJobServiceTest {
+
+    @Mock
+    private CompletedCourseRepository completedCourseRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private PermissionService permissionService;
+
+    @Mock
+    private CertificateTemplate certificateTemplate;
+
+    @Mock
+    private CertificateIdSigner certificateIdSigner;
+
+    private ThreadPoolTaskExecutor renderExecutor;
+
+    private final Principal admin = () -> "admin@example.com";
+
+    @BeforeEach
+    void setUp() {
+        renderExecutor = new ThreadPoolTaskExecutor();
+        renderExecutor.setCorePoolSize(1);
+        renderExecutor.setMaxPoolSize(1);
+        renderExecutor.initialize();
+
+        lenient().when(permissionService.hasRole(admin, "ROLE_ADMIN")).thenReturn(true);
+        lenient().when(courseRepository.findById(1L)).thenReturn(Optional.of(Course.builder().id(1L).title("Java").build()));
+        lenient().when(certificateIdSigner.sign(anyLong(), anyLong(), any())).thenReturn("CERT");
+        lenient().doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write(invocation.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(certificateTemplate).render(anyString(), anyString(), anyString(), any(OutputStream.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        renderExecutor.shutdown();
+    }
+
+    @Test
+    void startJob_WritesOneZipEntryPerRecipient() throws IOException {
+        when(completedCourseRepository.findCertificateRecipients(eq(1L), any(), any())).thenReturn(recipients(3));
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 20);
+
+        CertificateJobDTO started = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        CertificateJobDTO job = underTest.getJob(started.id(), admin);
+        assertThat(job.status()).isEqualTo(CertificateJobStatus.COMPLETED);
+        assertThat(job.total()).isEqualTo(3);
+        assertThat(job.completed()).isEqualTo(3);
+        assertThat(readZip(underTest.openJobFile(started.id(), admin)))
+                .containsExactlyInAnyOrder("Doe_John1-1.pdf:John1 Doe", "Doe_John2-2.pdf:John2 Doe", "Doe_John3-3.pdf:John3 Doe");
+    }
+
+    @Test
+    void startJob_QueriesTheInclusiveCompletionRange() {
+        when(completedCourseRepository.findCertificateRecipients(anyLong(), any(), any())).thenReturn(List.of());
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 20);
+
+        underTest.startJob(new CertificateJobRequest(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)), admin);
+
+        verify(completedCourseRepository).findCertificateRecipients(1L,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void startJob_KeepsAtMostTheRenderWindowInFlight() {
+        // one render thread, so at most two certificates may be submitted and not yet written
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(certificateIdSigner.sign(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            int inFlight = renderExecutor.getActiveCount() + renderExecutor.getThreadPoolExecutor().getQueue().size();
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+            return "CERT";
+        });
+        when(completedCourseRepository.findCertificateRecipients(eq(1L), any(), any())).thenReturn(recipients(20));
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 20);
+
+        CertificateJobDTO started = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        assertThat(underTest.getJob(started.id(), admin).completed()).isEqualTo(20);
+        assertThat(maxInFlight.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void startJob_MarksJobFailed_WhenRenderingFails() {
+        when(completedCourseRepository.findCertificateRecipients(eq(1L), any(), any())).thenReturn(recipients(2));
+        doThrow(new IllegalStateException("broken template"))
+                .when(certificateTemplate).render(anyString(), anyString(), anyString(), any(OutputStream.class));
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 20);
+
+        CertificateJobDTO started = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        assertThat(underTest.getJob(started.id(), admin).status()).isEqualTo(CertificateJobStatus.FAILED);
+        assertThatThrownBy(() -> underTest.openJobFile(started.id(), admin)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void openJobFile_ThrowsConflictException_WhenJobIsNotCompleted() {
+        CertificateJobService underTest = service(task -> { }, 20);
+
+        CertificateJobDTO started = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        assertThat(started.status()).isEqualTo(CertificateJobStatus.QUEUED);
+        assertThatThrownBy(() -> underTest.openJobFile(started.id(), admin)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void startJob_EvictsOldestFinishedJobAndItsFile_WhenRetentionIsReached() throws IOException {
+        when(completedCourseRepository.findCertificateRecipients(eq(1L), any(), any())).thenReturn(recipients(1));
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 1);
+
+        CertificateJobDTO first = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+        assertThat(jobFiles(first.id())).hasSize(1);
+        CertificateJobDTO second = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        assertThatThrownBy(() -> underTest.getJob(first.id(), admin)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(jobFiles(first.id())).isEmpty();
+        assertThat(underTest.getJob(second.id(), admin).status()).isEqualTo(CertificateJobStatus.COMPLETED);
+        readZip(underTest.openJobFile(second.id(), admin));
+    }
+
+    @Test
+    void startJob_KeepsTheFileOfAnEvictedJob_UntilItsDownloadIsClosed() throws IOException {
+        when(completedCourseRepository.findCertificateRecipients(eq(1L), any(), any())).thenReturn(recipients(1));
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 1);
+        CertificateJobDTO first = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        CertificateJobFile download = underTest.openJobFile(first.id(), admin);
+        CertificateJobDTO second = underTest.startJob(new CertificateJobRequest(1L, null, null), admin);
+
+        assertThatThrownBy(() -> underTest.openJobFile(first.id(), admin)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(jobFiles(first.id())).hasSize(1);
+        assertThat(readZip(download)).containsExactly("Doe_John1-1.pdf:John1 Doe");
+        assertThat(jobFiles(first.id())).isEmpty();
+        readZip(underTest.openJobFile(second.id(), admin));
+    }
+
+    @Test
+    void startJob_ThrowsConflictException_WhenJobQueueIsFull() {
+        CertificateJobService underTest = service(task -> {
+            throw new TaskRejectedException("full");
+        }, 20);
+
+        assertThatThrownBy(() -> underTest.startJob(new CertificateJobRequest(1L, null, null), admin))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void startJob_ThrowsForbiddenException_WhenUserIsNotAdmin() {
+        Principal user = () -> "user@example.com";
+        CertificateJobService underTest = service(new SyncTaskExecutor(), 20);
+
+        assertThatThrownBy(() -> underTest.startJob(new CertificateJobRequest(1L, null, null), user))
+                .isInstanceOf(ForbiddenException.class);
+        assertThatThrownBy(() -> underTest.getJob("any", user)).isInstanceOf(ForbiddenException.class);
+        verifyNoInteractions(courseRepository, completedCourseRepository);
+    }
+
+    private CertificateJobService service(TaskExecutor jobExecutor, int maxRetainedJobs) {
+        return new CertificateJobService(completedCourseRepository, courseRepository, permissionService,
+                certificateTemplate, certificateIdSigner, jobExecutor, renderExecutor, maxRetainedJobs);
+    }
+
+    private static List<CertificateRecipient> recipients(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new CertificateRecipient(id, "John" + id, "Doe", LocalDateTime.of(2024, 1, 1, 12, 0)))
+                .toList();
+    }
+
+    private static List<String> readZip(CertificateJobFile file) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(file.content())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.add(entry.getName() + ":" + new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    // job zips are temp files named after the job
+    private static List<Path> jobFiles(String jobId) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("certificates-" + jobId)).toList();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package project.backend.courses.completed.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import project.backend.courses.completed.repository.CompletedCourseRepository;
+import project.backend.exception.types.ResourceNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// the ON CONFLICT insert itself is PostgreSQL only, these tests cover how its row count is handled
+@ExtendWith(MockitoExtension.class)
+class CompletedCourseServiceTest {
+
+    @Mock
+    private CompletedCourseRepository completedCourseRepository;
+
+    @InjectMocks
+    private CompletedCourseService underTest;
+
+    @Test
+    void completeCourse_IsANoOp_WhenTheCourseWasAlreadyCompleted() {
+        when(completedCourseRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(1, 0);
+
+        assertThat(underTest.completeCourse(1L, 2L)).isTrue();
+        assertThat(underTest.completeCourse(1L, 2L)).isFalse();
+
+        verify(completedCourseRepository, times(2)).insertIfAbsent(eq(1L), eq(2L), any());
+        verifyNoMoreInteractions(completedCourseRepository);
+    }
+
+    @Test
+    void completeCourse_ThrowsNotFound_WhenTheCourseDoesNotExist() {
+        when(completedCourseRepository.insertIfAbsent(eq(1L), eq(2L), any()))
+                .thenThrow(new DataIntegrityViolationException("completed_course_course_id_fkey"));
+
+        assertThatThrownBy(() -> underTest.completeCourse(1L, 2L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
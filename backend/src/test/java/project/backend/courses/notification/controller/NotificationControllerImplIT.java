@@ -2,8 +2,10 @@ package project.backend.courses.notification.controller;
 
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -19,17 +21,20 @@ import project.backend.auth.dto.RegisterRequest;
 import project.backend.auth.service.AuthenticationService;
 import project.backend.courses.notification.model.Notification;
 import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.model.UserNotification;
 import project.backend.courses.notification.repository.NotificationRepository;
+import project.backend.courses.notification.repository.UserNotificationRepository;
 import project.backend.user.User;
 import project.backend.user.UserRepository;
 import project.backend.user.UserService;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ExtendWith(SpringExtension.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.MethodName.class) // the status update runs last, the read state is per user now
 class NotificationControllerImplIT {
 
     @Autowired
@@ -43,6 +48,11 @@ class NotificationControllerImplIT {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private UserNotificationRepository userNotificationRepository;
+
+    private Long notificationId;
+
     @Autowired
     private AuthenticationService authenticationService;
 
@@ -65,11 +75,14 @@ class NotificationControllerImplIT {
 
         Notification notification1 = Notification.builder()
                 .message("message1")
-                .notificationStatus(NotificationStatus.UNREAD)
                 .build();
         notificationRepository.save(notification1); // Save the notification
-        user.setNotificationList(List.of(notification1)); // Set the notification to the user
-        userService.saveUser(user); // Save the user first
+        notificationId = userNotificationRepository.save(UserNotification.builder() // Deliver it to the user
+                .user(user)
+                .notification(notification1)
+                .status(NotificationStatus.UNREAD)
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
     }
 
     @Test
@@ -81,7 +94,7 @@ class NotificationControllerImplIT {
                         .header("Authorization", "Bearer " + token))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1))); // assuming there is 1 notification for this user
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items", Matchers.hasSize(1))); // assuming there is 1 notification for this user
     }
 
     @Test
@@ -92,18 +105,18 @@ class NotificationControllerImplIT {
         // When & Then
         mockMvc
                 .perform(MockMvcRequestBuilders
-                        .get("/api/v1/notifications/" + notificationStatus + "/me")
+                        .get("/api/v1/notifications/me")
+                        .param("status", notificationStatus.name())
                         .header("Authorization", "Bearer " + token))
                 .andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1))) // assuming there is 1 notification for this user with the given status
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].notificationStatus", Matchers.is(notificationStatus.name())));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items", Matchers.hasSize(1))) // assuming there is 1 notification for this user with the given status
+                .andExpect(MockMvcResultMatchers.jsonPath("$.items[0].notificationStatus", Matchers.is(notificationStatus.name())));
     }
 
     @Test
     public void Should_UpdateNotificationStatus_When_SendPutRequest() throws Exception {
         // Given
-        Long notificationId = 1L; // assuming there is a notification with id 1
         NotificationStatus notificationStatus = NotificationStatus.READ; // or any other status you want to test
 
         // Create a JSON object to represent the Notification
@@ -0,0 +1,45 @@
+package project.backend.courses.notification.service;
+
+import org.junit.jupiter.api.Test;
+import project.backend.courses.notification.dto.AnnouncementDTO;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseAnnouncementServiceImplTest {
+
+    @Test
+    void mergesPerCourseListsNewestFirst() {
+        List<List<AnnouncementDTO>> perCourse = List.of(
+                List.of(announcement(9, 1), announcement(4, 1)),
+                List.of(announcement(8, 2), announcement(7, 2), announcement(1, 2)),
+                List.of(announcement(5, 3))
+        );
+
+        List<AnnouncementDTO> merged = CourseAnnouncementServiceImpl.mergeNewestFirst(perCourse, 10);
+
+        assertThat(merged).extracting(AnnouncementDTO::id).containsExactly(9L, 8L, 7L, 5L, 4L, 1L);
+    }
+
+    @Test
+    void stopsAtLimit() {
+        List<List<AnnouncementDTO>> perCourse = List.of(
+                List.of(announcement(6, 1), announcement(3, 1)),
+                List.of(announcement(5, 2), announcement(2, 2))
+        );
+
+        List<AnnouncementDTO> merged = CourseAnnouncementServiceImpl.mergeNewestFirst(perCourse, 3);
+
+        assertThat(merged).extracting(AnnouncementDTO::id).containsExactly(6L, 5L, 3L);
+    }
+
+    @Test
+    void handlesNoCourses() {
+        assertThat(CourseAnnouncementServiceImpl.mergeNewestFirst(List.of(), 20)).isEmpty();
+    }
+
+    private static AnnouncementDTO announcement(long id, long courseId) {
+        return new AnnouncementDTO(id, courseId, "Course " + courseId, "message " + id, null);
+    }
+}
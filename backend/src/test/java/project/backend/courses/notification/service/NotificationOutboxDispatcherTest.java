@@ -0,0 +1,85 @@
+package project.backend.courses.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxDispatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private final NotificationStats notificationStats = new NotificationStats();
+
+    private NotificationOutboxDispatcher underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new NotificationOutboxDispatcher(jdbcTemplate, transactionManager, notificationService,
+                notificationStats, executor, 2, 3);
+    }
+
+    @Test
+    void drain_DispatchesAFoldedEventOnceWithTheLatestMessage() throws SQLException {
+        // three changes of course 1 were folded into one row, the upsert kept the last message
+        ResultSet row = row(7L, 1L, "third change", 0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any()))
+                .thenAnswer(invocation -> List.of(invocation.getArgument(1, RowMapper.class).mapRow(row, 0)))
+                .thenReturn(List.of());
+
+        underTest.drain();
+
+        verify(notificationService, times(1)).dispatch(anyString(), anyLong());
+        verify(notificationService).dispatch("third change", 1L);
+        verify(jdbcTemplate).update("DELETE FROM notification_outbox WHERE id = ?", 7L);
+        assertThat(notificationStats.dispatchedEvents()).isEqualTo(1);
+    }
+
+    @Test
+    void drain_DelaysTheEvent_WhenDispatchFails() throws SQLException {
+        ResultSet row = row(7L, 1L, "change", 0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any()))
+                .thenAnswer(invocation -> List.of(invocation.getArgument(1, RowMapper.class).mapRow(row, 0)))
+                .thenReturn(List.of());
+        doThrow(new IllegalStateException("fan-out failed")).when(notificationService).dispatch("change", 1L);
+
+        underTest.drain();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE notification_outbox SET attempts"), eq(1), any(), eq(7L));
+        verify(jdbcTemplate, never()).update("DELETE FROM notification_outbox WHERE id = ?", 7L);
+        assertThat(notificationStats.dispatchedEvents()).isZero();
+    }
+
+    private static ResultSet row(long id, long courseId, String message, int attempts) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getLong("course_id")).thenReturn(courseId);
+        when(rs.getString("message")).thenReturn(message);
+        when(rs.getInt("attempts")).thenReturn(attempts);
+        return rs;
+    }
+}
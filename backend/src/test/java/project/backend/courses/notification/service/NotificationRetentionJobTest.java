@@ -0,0 +1,111 @@
+package project.backend.courses.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// the statements are PostgreSQL specific (DELETE ... USING in a CTE), these tests cover the batching around them
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationRetentionJob underTest;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        underTest = new NotificationRetentionJob(jdbcTemplate, 90, 100);
+    }
+
+    @Test
+    void deleteReadEntries_WalksBatchesUntilOneLiesEntirelyAfterTheCutoff() {
+        when(jdbcTemplate.queryForMap(contains("user_notification"), anyLong(), anyInt(), any()))
+                .thenReturn(batch(100L, cutoff.minusDays(10), 40))
+                // mixes old and recent rows, the walk goes on
+                .thenReturn(batch(200L, cutoff.minusDays(1), 60))
+                .thenReturn(batch(300L, cutoff.plusDays(1), 0));
+
+        long deleted = underTest.deleteReadEntries(cutoff);
+
+        assertThat(deleted).isEqualTo(100);
+        verify(jdbcTemplate).queryForMap(anyString(), eq(0L), eq(100), eq(cutoff));
+        verify(jdbcTemplate).queryForMap(anyString(), eq(100L), eq(100), eq(cutoff));
+        verify(jdbcTemplate).queryForMap(anyString(), eq(200L), eq(100), eq(cutoff));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void deleteReadEntries_StopsAtTheEndOfTheTable() {
+        when(jdbcTemplate.queryForMap(anyString(), anyLong(), anyInt(), any()))
+                .thenReturn(batch(100L, cutoff.minusDays(10), 100))
+                .thenReturn(batch(null, null, 0));
+
+        assertThat(underTest.deleteReadEntries(cutoff)).isEqualTo(100);
+        verify(jdbcTemplate, times(2)).queryForMap(anyString(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void deleteReadEntries_DeletesOnlyReadEntriesOlderThanTheCutoff() {
+        when(jdbcTemplate.queryForMap(anyString(), anyLong(), anyInt(), any())).thenReturn(batch(null, null, 0));
+
+        underTest.deleteReadEntries(cutoff);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForMap(sql.capture(), eq(0L), eq(100), eq(cutoff));
+        assertThat(sql.getValue()).contains("batch.status = 'READ'", "batch.created_at < ?");
+    }
+
+    @Test
+    void deleteOrphanedNotifications_WalksTheWholeTable() {
+        when(jdbcTemplate.queryForMap(contains("FROM notification"), anyLong(), anyInt()))
+                .thenReturn(batch(100L, null, 5))
+                .thenReturn(batch(200L, null, 0))
+                .thenReturn(batch(null, null, 0));
+
+        assertThat(underTest.deleteOrphanedNotifications()).isEqualTo(5);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(3)).queryForMap(sql.capture(), anyLong(), anyInt());
+        // a notification is kept while any inbox entry still points to it
+        assertThat(sql.getValue()).contains("NOT EXISTS (SELECT 1 FROM user_notification un WHERE un.notification_id = batch.id)");
+    }
+
+    @Test
+    void run_UsesTheRetentionPeriodAsCutoff() {
+        when(jdbcTemplate.queryForMap(anyString(), anyLong(), anyInt(), any())).thenReturn(batch(null, null, 0));
+        when(jdbcTemplate.queryForMap(anyString(), anyLong(), anyInt())).thenReturn(batch(null, null, 0));
+
+        underTest.run();
+
+        ArgumentCaptor<LocalDateTime> usedCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jdbcTemplate).queryForMap(anyString(), eq(0L), eq(100), usedCutoff.capture());
+        assertThat(usedCutoff.getValue()).isCloseTo(LocalDateTime.now().minusDays(90), within(1, ChronoUnit.MINUTES));
+        verify(jdbcTemplate).queryForMap(anyString(), eq(0L), eq(100));
+    }
+
+    private static Map<String, Object> batch(Long lastId, LocalDateTime oldestCreatedAt, long deleted) {
+        Map<String, Object> batch = new HashMap<>();
+        batch.put("last_id", lastId);
+        batch.put("oldest_created_at", oldestCreatedAt == null ? null : Timestamp.valueOf(oldestCreatedAt));
+        batch.put("deleted", deleted);
+        return batch;
+    }
+}
@@ -0,0 +1,155 @@
+package project.backend.courses.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.backend.courses.notification.dto.NotificationStatusUpdateRequest;
+import project.backend.courses.notification.dto.UnreadCountDTO;
+import project.backend.courses.notification.model.FanOutMode;
+import project.backend.courses.notification.model.Notification;
+import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.repository.NotificationOutboxRepository;
+import project.backend.courses.notification.repository.NotificationRepository;
+import project.backend.courses.notification.repository.UserNotificationRepository;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// the fold itself is the ON CONFLICT upsert of NotificationOutboxRepository.enqueue (PostgreSQL only),
+// these tests cover how its result is handled
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserNotificationRepository userNotificationRepository;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
+    @Mock
+    private CourseAnnouncementService courseAnnouncementService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private NotificationStats notificationStats;
+
+    @InjectMocks
+    private NotificationServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "fanOutMode", FanOutMode.WRITE);
+        ReflectionTestUtils.setField(underTest, "coalescingWindowMs", 30_000L);
+    }
+
+    @Test
+    void assignNotifications_FoldsChangesIntoThePendingEvent_WhenCourseAlreadyHasOne() {
+        when(notificationOutboxRepository.enqueue(eq(1L), anyString(), any(), any())).thenReturn(0, 1, 2);
+
+        underTest.assignNotifications("first", 1L);
+        underTest.assignNotifications("second", 1L);
+        underTest.assignNotifications("third", 1L);
+
+        assertThat(notificationStats.receivedEvents()).isEqualTo(3);
+        assertThat(notificationStats.coalescedEvents()).isEqualTo(2);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void assignNotifications_DelaysTheEventByTheCoalescingWindow() {
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        underTest.assignNotifications("changed", 1L);
+
+        verify(notificationOutboxRepository).enqueue(eq(1L), eq("changed"), now.capture(), availableAt.capture());
+        assertThat(Duration.between(now.getValue(), availableAt.getValue())).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void assignNotifications_WakesTheDispatcher_OnlyForNewEventsWithoutWindow() {
+        ReflectionTestUtils.setField(underTest, "coalescingWindowMs", 0L);
+        when(notificationOutboxRepository.enqueue(eq(1L), anyString(), any(), any())).thenReturn(0, 1);
+
+        underTest.assignNotifications("first", 1L);
+        underTest.assignNotifications("second", 1L);
+
+        verify(eventPublisher, times(1)).publishEvent(new NotificationQueuedEvent(1L));
+    }
+
+    @Test
+    void dispatch_StoresTheMessageOnce_AndDeliversAnInboxEntryToEveryBuyer() {
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+            Notification notification = invocation.getArgument(0);
+            notification.setId(42L);
+            return notification;
+        });
+        // one inbox row per distinct buyer of course 1
+        when(userNotificationRepository.assignToCourseBuyers(eq(42L), eq(1L), any())).thenReturn(3);
+
+        underTest.dispatch("new lesson", 1L);
+
+        ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository).save(saved.capture());
+        assertThat(saved.getValue().getMessage()).isEqualTo("new lesson");
+        verify(userNotificationRepository, times(1)).assignToCourseBuyers(eq(42L), eq(1L), any());
+        verify(unreadNotificationCounter).onDelivered(42L);
+        verify(notificationStreamService).publishNotification(42L);
+        verifyNoInteractions(courseAnnouncementService);
+    }
+
+    @Test
+    void dispatch_WritesNoInboxEntries_InReadMode() {
+        ReflectionTestUtils.setField(underTest, "fanOutMode", FanOutMode.READ);
+
+        underTest.dispatch("new lesson", 1L);
+
+        verify(courseAnnouncementService).announce(1L, "new lesson");
+        verifyNoInteractions(notificationRepository, userNotificationRepository, unreadNotificationCounter, notificationStreamService);
+    }
+
+    @Test
+    void updateNotificationStatuses_ChangesOnlyTheCallersInboxEntries() {
+        Principal principal = () -> "student@test.com";
+        when(userService.getUserId(principal)).thenReturn(5L);
+        when(unreadNotificationCounter.get(5L)).thenReturn(3L);
+        // ids 11 and 12 are the caller's, 13 belongs to another recipient and is not matched
+        when(userNotificationRepository.updateStatusByIds(5L, List.of(11L, 12L, 13L), NotificationStatus.READ)).thenReturn(2);
+
+        UnreadCountDTO unread = underTest.updateNotificationStatuses(
+                new NotificationStatusUpdateRequest(NotificationStatus.READ, List.of(11L, 12L, 13L), null), principal);
+
+        assertThat(unread.unreadCount()).isEqualTo(1);
+        verify(unreadNotificationCounter).adjust(5L, -2);
+        verify(notificationStreamService).publishUnreadCount(5L);
+        verifyNoMoreInteractions(unreadNotificationCounter, notificationStreamService);
+    }
+}
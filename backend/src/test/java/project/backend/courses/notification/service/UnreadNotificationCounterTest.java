@@ -0,0 +1,82 @@
+package project.backend.courses.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.courses.notification.dto.UserUnreadCount;
+import project.backend.courses.notification.model.NotificationStatus;
+import project.backend.courses.notification.repository.UserNotificationRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest {
+
+    @Mock
+    private UserNotificationRepository userNotificationRepository;
+
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UnreadNotificationCounter(userNotificationRepository, 100);
+    }
+
+    @Test
+    void loadsCountOnceAndAppliesDeltas() {
+        when(userNotificationRepository.countByUserIdAndStatus(1L, NotificationStatus.UNREAD)).thenReturn(3L);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+        counter.adjust(1L, -1);
+        counter.adjust(1L, -1);
+
+        assertThat(counter.get(1L)).isEqualTo(1);
+        verify(userNotificationRepository, times(1)).countByUserIdAndStatus(1L, NotificationStatus.UNREAD);
+    }
+
+    @Test
+    void deliveryIncrementsCachedRecipientsOnly() {
+        when(userNotificationRepository.countByUserIdAndStatus(anyLong(), eq(NotificationStatus.UNREAD))).thenReturn(0L);
+        counter.get(1L);
+        counter.get(2L);
+        when(userNotificationRepository.findRecipientsAmong(eq(50L), anyCollection())).thenReturn(List.of(2L));
+
+        counter.onDelivered(50L);
+
+        assertThat(counter.get(1L)).isZero();
+        assertThat(counter.get(2L)).isEqualTo(1);
+    }
+
+    @Test
+    void skipsDeliveryLookupWhenNothingIsCached() {
+        counter.onDelivered(50L);
+
+        verify(userNotificationRepository, never()).findRecipientsAmong(anyLong(), anyCollection());
+    }
+
+    @Test
+    void reconcileFixesDriftAndDropsIdleUsers() {
+        when(userNotificationRepository.countByUserIdAndStatus(anyLong(), eq(NotificationStatus.UNREAD))).thenReturn(5L);
+        counter.get(1L);
+        counter.get(2L);
+        counter.adjust(1L, 10);
+        when(userNotificationRepository.countUnreadByUserIds(anyCollection()))
+                .thenReturn(List.of(new UserUnreadCount(1L, 4L), new UserUnreadCount(2L, 5L)));
+
+        counter.reconcile();
+        assertThat(counter.get(1L)).isEqualTo(4);
+
+        // user 2 was not read since the last reconcile
+        counter.reconcile();
+        counter.get(2L);
+        verify(userNotificationRepository, times(2)).countByUserIdAndStatus(2L, NotificationStatus.UNREAD);
+    }
+}
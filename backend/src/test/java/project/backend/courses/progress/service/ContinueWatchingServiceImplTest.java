@@ -0,0 +1,110 @@
+package project.backend.courses.progress.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import project.backend.courses.progress.dto.ContinueWatchingDTO;
+import project.backend.courses.progress.dto.LessonSummary;
+import project.backend.courses.progress.repository.LessonProgressRepository;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContinueWatchingServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LessonProgressRepository lessonProgressRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ObjectProvider<LessonProgressService> lessonProgressServiceProvider;
+
+    @Mock
+    private LessonProgressService lessonProgressService;
+
+    private ContinueWatchingServiceImpl continueWatchingService;
+
+    private final Principal principal = () -> "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        continueWatchingService = new ContinueWatchingServiceImpl(jdbcTemplate, lessonProgressRepository, userService, lessonProgressServiceProvider, 2, 100);
+        lenient().when(lessonProgressServiceProvider.getObject()).thenReturn(lessonProgressService);
+        lenient().when(userService.getUserId(principal)).thenReturn(1L);
+        lenient().when(lessonProgressRepository.findLessonSummaries(anyCollection())).thenReturn(List.of(
+                new LessonSummary(10L, "Lesson 10", 100L, "Course 100", null),
+                new LessonSummary(20L, "Lesson 20", 200L, "Course 200", null),
+                new LessonSummary(30L, "Lesson 30", 300L, "Course 300", null)
+        ));
+    }
+
+    @Test
+    void getContinueWatching_KeepsMostRecentCourses_WhenProgressArrives() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenReturn(List.of());
+        continueWatchingService.getContinueWatching(principal);
+
+        LocalDateTime now = LocalDateTime.now();
+        continueWatchingService.onProgress(1L, 100L, 10L, 5, now);
+        continueWatchingService.onProgress(1L, 200L, 20L, 6, now.plusSeconds(1));
+        continueWatchingService.onProgress(1L, 300L, 30L, 7, now.plusSeconds(2));
+        continueWatchingService.onProgress(1L, 200L, 20L, 8, now.plusSeconds(3));
+
+        List<ContinueWatchingDTO> result = continueWatchingService.getContinueWatching(principal);
+
+        assertEquals(List.of(200L, 300L), result.stream().map(ContinueWatchingDTO::courseId).toList());
+        assertEquals(8, result.get(0).positionSeconds());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getContinueWatching_KeepsUnflushedProgress_WhenRebuildingFromTheTable() {
+        LocalDateTime now = LocalDateTime.now();
+        // heartbeat still in the write-behind buffer, newer than the row already in lesson_progress
+        doAnswer(invocation -> {
+            continueWatchingService.onProgress(1L, 100L, 10L, 50, now);
+            return null;
+        }).when(lessonProgressService).replayPending(1L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+            // arrives while the table is queried
+            continueWatchingService.onProgress(1L, 300L, 30L, 7, now.plusSeconds(1));
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("course_id")).thenReturn(100L);
+            when(rs.getLong("lesson_id")).thenReturn(10L);
+            when(rs.getInt("position_seconds")).thenReturn(20);
+            when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(now.minusMinutes(1));
+            return List.of(mapper.mapRow(rs, 0));
+        });
+
+        List<ContinueWatchingDTO> result = continueWatchingService.getContinueWatching(principal);
+
+        assertEquals(List.of(300L, 100L), result.stream().map(ContinueWatchingDTO::courseId).toList());
+        assertEquals(50, result.get(1).positionSeconds());
+    }
+
+    @Test
+    void onProgress_IgnoresUsersThatAreNotCached() {
+        continueWatchingService.onProgress(2L, 100L, 10L, 5, LocalDateTime.now());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,83 @@
+package project.backend.courses.progress.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.courses.completed.repository.CompletedCourseRepository;
+import project.backend.courses.completed.service.CompletedCourseService;
+import project.backend.courses.lesson.repository.LessonRepository;
+import project.backend.courses.progress.repository.LessonProgressRepository;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCompletionTrackerTest {
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    @Mock
+    private LessonProgressRepository lessonProgressRepository;
+
+    @Mock
+    private CompletedCourseRepository completedCourseRepository;
+
+    @Mock
+    private CompletedCourseService completedCourseService;
+
+    private CourseCompletionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new CourseCompletionTracker(lessonRepository, lessonProgressRepository, completedCourseRepository, completedCourseService, 100);
+        when(lessonRepository.findIdsByCourseIdOrderByLessonNumber(100L)).thenReturn(List.of(10L, 11L, 12L));
+    }
+
+    @Test
+    void onLessonCompleted_CompletesCourseOnce_WhenLastLessonCompleted() {
+        when(lessonProgressRepository.findCompletedLessonIds(1L, 100L)).thenReturn(List.of(10L));
+
+        tracker.onLessonCompleted(1L, 100L, 10L);
+        tracker.onLessonCompleted(1L, 100L, 11L);
+        verify(completedCourseService, never()).completeCourse(anyLong(), anyLong());
+
+        tracker.onLessonCompleted(1L, 100L, 12L);
+        tracker.onLessonCompleted(1L, 100L, 12L);
+
+        verify(completedCourseService, times(1)).completeCourse(1L, 100L);
+        verify(lessonProgressRepository, times(1)).findCompletedLessonIds(1L, 100L);
+        verify(lessonRepository, times(1)).findIdsByCourseIdOrderByLessonNumber(100L);
+    }
+
+    @Test
+    void onLessonCompleted_DoesNotCompleteCourse_WhenAlreadyCompleted() {
+        when(completedCourseRepository.existsByUserIdAndCourseId(1L, 100L)).thenReturn(true);
+        when(lessonProgressRepository.findCompletedLessonIds(1L, 100L)).thenReturn(List.of(10L, 11L));
+
+        tracker.onLessonCompleted(1L, 100L, 12L);
+
+        verify(completedCourseService, never()).completeCourse(anyLong(), anyLong());
+    }
+
+    @Test
+    void onLessonCompleted_ReloadsLessons_WhenCourseInvalidated() {
+        when(lessonProgressRepository.findCompletedLessonIds(1L, 100L)).thenReturn(List.of(10L, 11L));
+        tracker.onLessonCompleted(1L, 100L, 11L);
+
+        when(lessonRepository.findIdsByCourseIdOrderByLessonNumber(100L)).thenReturn(List.of(10L, 11L, 12L, 13L));
+        when(lessonProgressRepository.findCompletedLessonIds(1L, 100L)).thenReturn(List.of(10L, 11L));
+        tracker.invalidateCourse(100L);
+        tracker.onLessonCompleted(1L, 100L, 12L);
+
+        verify(completedCourseService, never()).completeCourse(anyLong(), anyLong());
+
+        tracker.onLessonCompleted(1L, 100L, 13L);
+
+        verify(completedCourseService, times(1)).completeCourse(1L, 100L);
+    }
+}
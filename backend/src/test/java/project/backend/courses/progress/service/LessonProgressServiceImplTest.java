@@ -0,0 +1,176 @@
+package project.backend.courses.progress.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.backend.courses.lesson.repository.LessonRepository;
+import project.backend.courses.progress.dto.LessonProgressRequest;
+import project.backend.exception.types.ResourceNotFoundException;
+import project.backend.user.UserService;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LessonProgressServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CourseCompletionTracker courseCompletionTracker;
+
+    @Mock
+    private ContinueWatchingService continueWatchingService;
+
+    @InjectMocks
+    private LessonProgressServiceImpl lessonProgressService;
+
+    private final Principal principal = () -> "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lessonProgressService, "maxLessonCourses", 100);
+        lenient().when(userService.getUserId(principal)).thenReturn(1L);
+        lenient().when(lessonRepository.findCourseIdById(10L)).thenReturn(Optional.of(100L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WritesOneRowPerUserAndLesson() {
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(40, true), principal);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(50, false), principal);
+
+        lessonProgressService.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(LessonProgressServiceImpl.UPSERT_SQL), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        Object[] row = rows.getValue().get(0);
+        assertEquals(1L, row[0]);
+        assertEquals(10L, row[1]);
+        assertEquals(100L, row[2]);
+        assertEquals(50, row[3]);
+        assertEquals(true, row[4]);
+        verify(lessonRepository, times(1)).findCourseIdById(10L);
+        verify(courseCompletionTracker, times(1)).onLessonCompleted(1L, 100L, 10L);
+    }
+
+    @Test
+    void flush_DoesNothing_WhenNoProgressPending() {
+        lessonProgressService.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_KeepsRows_WhenWriteFails() {
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new RuntimeException("down")).thenReturn(new int[]{1});
+
+        lessonProgressService.flush();
+        lessonProgressService.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        verifyNoInteractions(courseCompletionTracker);
+    }
+
+    @Test
+    void flush_WritesRowsOneByOneAndDropsTheViolatingOne_WhenBatchFailsOnAConstraint() {
+        when(lessonRepository.findCourseIdById(11L)).thenReturn(Optional.of(100L));
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, true), principal);
+        lessonProgressService.recordProgress(11L, new LessonProgressRequest(40, true), principal);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("lesson deleted"));
+        when(jdbcTemplate.update(eq(LessonProgressServiceImpl.UPSERT_SQL), eq(1L), eq(10L), any(), any(), any(), any())).thenReturn(1);
+        // lesson 11 was deleted after the heartbeat
+        when(jdbcTemplate.update(eq(LessonProgressServiceImpl.UPSERT_SQL), eq(1L), eq(11L), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("lesson deleted"));
+
+        lessonProgressService.flush();
+        lessonProgressService.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(courseCompletionTracker).onLessonCompleted(1L, 100L, 10L);
+        verify(courseCompletionTracker, never()).onLessonCompleted(1L, 100L, 11L);
+    }
+
+    @Test
+    void flush_RetriesARow_WhenItsSingleWriteFailsForAnotherReason() {
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("other row"))
+                .thenReturn(new int[]{1});
+        when(jdbcTemplate.update(eq(LessonProgressServiceImpl.UPSERT_SQL), eq(1L), eq(10L), any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("down"));
+
+        lessonProgressService.flush();
+        lessonProgressService.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void replayPending_ReportsOnlyUnflushedProgressOfTheUser() {
+        when(userService.getUserId(any(Principal.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, Principal.class) == principal ? 1L : 2L);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(40, false), () -> "other@example.com");
+        clearInvocations(continueWatchingService);
+
+        lessonProgressService.replayPending(1L);
+
+        verify(continueWatchingService, times(1)).onProgress(eq(1L), eq(100L), eq(10L), eq(30), any());
+        verifyNoMoreInteractions(continueWatchingService);
+    }
+
+    @Test
+    void recordProgress_LooksUpCourseAgain_WhenLessonWasInvalidated() {
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(40, false), principal);
+        lessonProgressService.invalidateLesson(10L);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(50, false), principal);
+
+        verify(lessonRepository, times(2)).findCourseIdById(10L);
+    }
+
+    @Test
+    void recordProgress_DoesNotCacheCourse_WhenCacheIsFull() {
+        ReflectionTestUtils.setField(lessonProgressService, "maxLessonCourses", 0);
+
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(30, false), principal);
+        lessonProgressService.recordProgress(10L, new LessonProgressRequest(40, false), principal);
+
+        verify(lessonRepository, times(2)).findCourseIdById(10L);
+    }
+
+    @Test
+    void recordProgress_ThrowsResourceNotFoundException_WhenLessonDoesNotExist() {
+        when(lessonRepository.findCourseIdById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> lessonProgressService.recordProgress(99L, new LessonProgressRequest(30, false), principal));
+    }
+}
@@ -0,0 +1,236 @@
+package project.backend.courses.utils.file.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import project.backend.courses.utils.file.model.StoredBlob;
+import project.backend.courses.utils.file.repository.StoredBlobRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// the stored_blob table is kept in memory and restored when a transaction rolls back
+@ExtendWith(MockitoExtension.class)
+class DeduplicatingFileServiceTest {
+
+    @Mock
+    private FileService storage;
+
+    @Mock
+    private StoredBlobRepository storedBlobRepository;
+
+    private final Map<String, StoredBlob> blobs = new HashMap<>();
+
+    private final Map<String, String> contents = new HashMap<>();
+
+    private DeduplicatingFileService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DeduplicatingFileService(storage, storedBlobRepository, new SnapshotTransactionManager(), new SyncTaskExecutor());
+
+        lenient().when(storage.getFile(anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(contents.get(invocation.getArgument(0, String.class)).getBytes(StandardCharsets.UTF_8)));
+        lenient().when(storedBlobRepository.existsByKeyName(anyString())).thenAnswer(invocation ->
+                byKey(invocation.getArgument(0)).isPresent());
+        lenient().when(storedBlobRepository.findByContentHash(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(blobs.get(invocation.getArgument(0, String.class))));
+        lenient().when(storedBlobRepository.incrementReferenceCount(anyString())).thenAnswer(invocation -> {
+            StoredBlob blob = blobs.get(invocation.getArgument(0, String.class));
+            if (blob == null) {
+                return 0;
+            }
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            return 1;
+        });
+        lenient().when(storedBlobRepository.decrementReferenceCount(anyString())).thenAnswer(invocation -> {
+            Optional<StoredBlob> blob = byKey(invocation.getArgument(0)).filter(b -> b.getReferenceCount() > 0);
+            blob.ifPresent(b -> b.setReferenceCount(b.getReferenceCount() - 1));
+            return blob.isPresent() ? 1 : 0;
+        });
+        lenient().when(storedBlobRepository.deleteUnreferenced(anyString())).thenAnswer(invocation -> {
+            Optional<StoredBlob> blob = byKey(invocation.getArgument(0)).filter(b -> b.getReferenceCount() == 0);
+            blob.ifPresent(b -> blobs.remove(b.getContentHash()));
+            return blob.isPresent() ? 1 : 0;
+        });
+        lenient().when(storedBlobRepository.saveAndFlush(any(StoredBlob.class))).thenAnswer(invocation -> {
+            StoredBlob blob = invocation.getArgument(0);
+            if (blobs.containsKey(blob.getContentHash()) || byKey(blob.getKeyName()).isPresent()) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            blobs.put(blob.getContentHash(), blob);
+            return blob;
+        });
+    }
+
+    @Test
+    void completeUpload_SharesOneStoredObject_WhenSameContentIsUploadedTwice() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+
+        assertThat(underTest.completeUpload("first.mp4", (uploaded, stored) -> true)).isCompletedWithValue("first.mp4");
+        assertThat(underTest.completeUpload("second.mp4", (uploaded, stored) -> true)).isCompletedWithValue("first.mp4");
+
+        assertThat(blobs).hasSize(1);
+        assertThat(byKey("first.mp4")).hasValueSatisfying(blob -> assertThat(blob.getReferenceCount()).isEqualTo(2));
+        verify(storage).deleteFile("second.mp4");
+        verify(storage, never()).deleteFile("first.mp4");
+    }
+
+    @Test
+    void completeUpload_KeepsBothObjects_WhenContentDiffers() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "another video");
+
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+        assertThat(underTest.completeUpload("second.mp4", (uploaded, stored) -> true)).isCompletedWithValue("second.mp4");
+
+        assertThat(blobs).hasSize(2);
+        verify(storage, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void deleteFile_RemovesTheObject_OnlyWithTheLastReference() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+        underTest.completeUpload("second.mp4", (uploaded, stored) -> true);
+
+        assertThat(underTest.deleteFile("first.mp4")).isFalse();
+        verify(storage, never()).deleteFile("first.mp4");
+
+        assertThat(underTest.deleteFile("first.mp4")).isTrue();
+        verify(storage).deleteFile("first.mp4");
+        assertThat(blobs).isEmpty();
+    }
+
+    @Test
+    void deleteFile_DeletesKeysThatWereNeverRegistered() {
+        assertThat(underTest.deleteFile("legacy.mp4")).isTrue();
+
+        verify(storage).deleteFile("legacy.mp4");
+    }
+
+    @Test
+    void completeUpload_LeavesTheReferenceCount_WhenTheOwnerNoLongerUsesTheUpload() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+
+        // the lesson got another video while this one was hashed, the registration rolls back
+        assertThat(underTest.completeUpload("second.mp4", (uploaded, stored) -> false)).isCompletedWithValue(null);
+
+        assertThat(byKey("first.mp4")).hasValueSatisfying(blob -> assertThat(blob.getReferenceCount()).isEqualTo(1));
+        verify(storage, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void completeUpload_StoresTheUploadAsNewCopy_WhenTheLastReferenceWasDeletedFirst() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+
+        assertThat(underTest.deleteFile("first.mp4")).isTrue();
+        assertThat(underTest.completeUpload("second.mp4", (uploaded, stored) -> true)).isCompletedWithValue("second.mp4");
+
+        // the upload never points at the removed object
+        verify(storage).deleteFile("first.mp4");
+        verify(storage, never()).deleteFile("second.mp4");
+        assertThat(byKey("second.mp4")).hasValueSatisfying(blob -> assertThat(blob.getReferenceCount()).isEqualTo(1));
+    }
+
+    @Test
+    void deleteFile_KeepsTheObject_WhenTheSameContentWasRegisteredFirst() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+
+        underTest.completeUpload("second.mp4", (uploaded, stored) -> true);
+        assertThat(underTest.deleteFile("first.mp4")).isFalse();
+
+        verify(storage, never()).deleteFile("first.mp4");
+        assertThat(byKey("first.mp4")).hasValueSatisfying(blob -> assertThat(blob.getReferenceCount()).isEqualTo(1));
+    }
+
+    @Test
+    void completeUpload_ReferencesTheConcurrentlyRegisteredCopy_WhenInsertLosesTheRace() {
+        upload("first.mp4", "video");
+        upload("second.mp4", "video");
+        underTest.completeUpload("first.mp4", (uploaded, stored) -> true);
+        // the other upload commits between the lookup and the insert of this one
+        AtomicBoolean raced = new AtomicBoolean();
+        when(storedBlobRepository.incrementReferenceCount(anyString())).thenAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                return 0;
+            }
+            StoredBlob blob = blobs.get(invocation.getArgument(0, String.class));
+            blob.setReferenceCount(blob.getReferenceCount() + 1);
+            return 1;
+        });
+
+        assertThat(underTest.completeUpload("second.mp4", (uploaded, stored) -> true)).isCompletedWithValue("first.mp4");
+
+        assertThat(byKey("first.mp4")).hasValueSatisfying(blob -> assertThat(blob.getReferenceCount()).isEqualTo(2));
+        verify(storage).deleteFile("second.mp4");
+    }
+
+    private void upload(String keyName, String content) {
+        contents.put(keyName, content);
+    }
+
+    private Optional<StoredBlob> byKey(String keyName) {
+        return blobs.values().stream().filter(blob -> blob.getKeyName().equals(keyName)).findFirst();
+    }
+
+    private class SnapshotTransactionManager implements PlatformTransactionManager {
+        private final Deque<Map<String, StoredBlob>> snapshots = new ArrayDeque<>();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            Map<String, StoredBlob> snapshot = new HashMap<>();
+            blobs.forEach((hash, blob) -> snapshot.put(hash, StoredBlob.builder()
+                    .contentHash(blob.getContentHash())
+                    .keyName(blob.getKeyName())
+                    .referenceCount(blob.getReferenceCount())
+                    .build()));
+            snapshots.push(snapshot);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            Map<String, StoredBlob> snapshot = snapshots.pop();
+            if (status.isRollbackOnly()) {
+                restore(snapshot);
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            restore(snapshots.pop());
+        }
+
+        private void restore(Map<String, StoredBlob> snapshot) {
+            blobs.clear();
+            blobs.putAll(snapshot);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package project.backend.courses.utils.image.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.backend.courses.utils.file.service.FileService;
+import project.backend.courses.utils.image.model.ImageVariant;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceTest {
+
+    private static final String KEY = "public/courses/1/image";
+
+    @Mock
+    private FileService fileService;
+
+    @InjectMocks
+    private ImageVariantService underTest;
+
+    private final Map<String, BufferedImage> uploaded = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "maxPixels", 25_000_000L);
+        lenient().doAnswer(invocation -> {
+            uploaded.put(invocation.getArgument(0), ImageIO.read(new ByteArrayInputStream(invocation.getArgument(1))));
+            return null;
+        }).when(fileService).uploadFile(anyString(), any(byte[].class), eq("image/jpeg"));
+    }
+
+    @Test
+    void generateVariants_ScalesEveryVariantToItsWidth_KeepingTheAspectRatio() throws IOException {
+        // 3000 -> 1500 -> 1280 for HERO, then one step each for RETINA and CARD
+        stored(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB));
+
+        underTest.generateVariants(KEY).join();
+
+        assertThat(uploaded).containsOnlyKeys(ImageVariant.CARD.keyFor(KEY), ImageVariant.RETINA.keyFor(KEY), ImageVariant.HERO.keyFor(KEY));
+        assertSize(ImageVariant.HERO, 1280, 640);
+        assertSize(ImageVariant.RETINA, 800, 400);
+        assertSize(ImageVariant.CARD, 400, 200);
+    }
+
+    @Test
+    void generateVariants_AveragesEverySourcePixel_ByHalvingStepByStep() throws IOException {
+        // one white column in four: scaling 5120 -> 1280 in one bilinear step samples only black columns,
+        // halving twice averages all of them into a dark gray
+        BufferedImage stripes = new BufferedImage(5120, 8, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < stripes.getWidth(); x += 4) {
+            for (int y = 0; y < stripes.getHeight(); y++) {
+                stripes.setRGB(x, y, 0xFFFFFF);
+            }
+        }
+        stored(stripes);
+
+        underTest.generateVariants(KEY).join();
+
+        assertSize(ImageVariant.HERO, 1280, 2);
+        assertThat(meanBrightness(uploaded.get(ImageVariant.HERO.keyFor(KEY)))).isBetween(50.0, 80.0);
+    }
+
+    @Test
+    void generateVariants_NeverUpscales_WhenImageIsNarrowerThanTheVariant() throws IOException {
+        stored(new BufferedImage(600, 300, BufferedImage.TYPE_INT_RGB));
+
+        underTest.generateVariants(KEY).join();
+
+        assertSize(ImageVariant.HERO, 600, 300);
+        assertSize(ImageVariant.RETINA, 600, 300);
+        assertSize(ImageVariant.CARD, 400, 200);
+    }
+
+    @Test
+    void generateVariants_PaintsTransparentPixelsWhite() throws IOException {
+        stored(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+
+        underTest.generateVariants(KEY).join();
+
+        int rgb = uploaded.get(ImageVariant.CARD.keyFor(KEY)).getRGB(50, 50) & 0xFFFFFF;
+        assertThat(rgb >> 16 & 0xFF).isGreaterThan(245);
+        assertThat(rgb >> 8 & 0xFF).isGreaterThan(245);
+        assertThat(rgb & 0xFF).isGreaterThan(245);
+    }
+
+    @Test
+    void generateVariants_RejectsImagesAboveThePixelLimit() throws IOException {
+        ReflectionTestUtils.setField(underTest, "maxPixels", 10_000L);
+        stored(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB));
+
+        assertThatThrownBy(() -> underTest.generateVariants(KEY)).isInstanceOf(IllegalArgumentException.class);
+        verify(fileService, never()).uploadFile(anyString(), any(), anyString());
+    }
+
+    @Test
+    void generateVariants_RejectsUnsupportedFormats() {
+        when(fileService.getFile(KEY)).thenReturn(new ByteArrayInputStream("not an image".getBytes()));
+
+        assertThatThrownBy(() -> underTest.generateVariants(KEY)).isInstanceOf(IllegalArgumentException.class);
+        verify(fileService, never()).uploadFile(anyString(), any(), anyString());
+    }
+
+    private void stored(BufferedImage image) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        when(fileService.getFile(KEY)).thenReturn(new ByteArrayInputStream(png.toByteArray()));
+    }
+
+    private static double meanBrightness(BufferedImage image) {
+        long sum = 0;
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                sum += image.getRGB(x, y) & 0xFF;
+            }
+        }
+        return (double) sum / (image.getWidth() * image.getHeight());
+    }
+
+    private void assertSize(ImageVariant variant, int width, int height) {
+        BufferedImage image = uploaded.get(variant.keyFor(KEY));
+        assertThat(image.getWidth()).as(variant.name()).isEqualTo(width);
+        assertThat(image.getHeight()).as(variant.name()).isEqualTo(height);
+    }
+}
@@ -0,0 +1,116 @@
+package project.backend.courses.utils.video.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.backend.courses.utils.file.service.FileService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Mp4DurationReaderTest {
+
+    private static final String KEY = "private/courses/1/lessons/video";
+    private static final int MDAT_SIZE = 1_000_000;
+
+    @Mock
+    private FileService fileService;
+
+    @InjectMocks
+    private Mp4DurationReader mp4DurationReader;
+
+    @Test
+    void readDuration_MoovAfterMdat() {
+        byte[] file = concat(box("ftyp", new byte[16]), mdat(), box("moov", concat(box("trak", new byte[32]), mvhdV0(1000, 90_500))));
+        givenFile(file);
+
+        Optional<Duration> duration = mp4DurationReader.readDuration(KEY);
+
+        assertEquals(Optional.of(Duration.ofMillis(90_500)), duration);
+        // media data is skipped, only headers and the mvhd fields are fetched
+        verify(fileService, never()).readRange(eq(KEY), anyLong(), intThat(length -> length > 32));
+    }
+
+    @Test
+    void readDuration_MoovBeforeMdat_Version1() {
+        byte[] file = concat(box("ftyp", new byte[16]), box("moov", mvhdV1(600, 600L * 3600)), mdat());
+        givenFile(file);
+
+        Optional<Duration> duration = mp4DurationReader.readDuration(KEY);
+
+        assertEquals(Optional.of(Duration.ofHours(1)), duration);
+    }
+
+    @Test
+    void readDuration_NoMoovBox() {
+        givenFile(concat(box("ftyp", new byte[16]), mdat()));
+
+        assertTrue(mp4DurationReader.readDuration(KEY).isEmpty());
+    }
+
+    @Test
+    void readDuration_TruncatedFile() {
+        byte[] file = concat(box("ftyp", new byte[16]), box("moov", mvhdV0(1000, 5000)));
+        givenFile(Arrays.copyOf(file, file.length - 10));
+
+        assertTrue(mp4DurationReader.readDuration(KEY).isEmpty());
+    }
+
+    private void givenFile(byte[] file) {
+        when(fileService.getFileSize(KEY)).thenReturn((long) file.length);
+        lenient().when(fileService.readRange(eq(KEY), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            int length = invocation.getArgument(2);
+            return Arrays.copyOfRange(file, (int) offset, (int) Math.min(file.length, offset + length));
+        });
+    }
+
+    private static byte[] mdat() {
+        return box("mdat", new byte[MDAT_SIZE]);
+    }
+
+    private static byte[] mvhdV0(int timescale, int duration) {
+        ByteBuffer content = ByteBuffer.allocate(100);
+        content.putInt(0); // version and flags
+        content.putInt(0).putInt(0); // creation and modification time
+        content.putInt(timescale).putInt(duration);
+        return box("mvhd", content.array());
+    }
+
+    private static byte[] mvhdV1(int timescale, long duration) {
+        ByteBuffer content = ByteBuffer.allocate(112);
+        content.putInt(1 << 24); // version and flags
+        content.putLong(0).putLong(0); // creation and modification time
+        content.putInt(timescale).putLong(duration);
+        return box("mvhd", content.array());
+    }
+
+    private static byte[] box(String type, byte[] content) {
+        return ByteBuffer.allocate(8 + content.length)
+                .putInt(8 + content.length)
+                .put(type.getBytes(StandardCharsets.US_ASCII))
+                .put(content)
+                .array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
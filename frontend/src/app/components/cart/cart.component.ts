@@ -35,7 +35,12 @@ export class CartComponent implements OnInit {
     this.cartService.getCart().subscribe(cart => {
       this.cartItems = cart.items;
       this.cartId = cart.id;
-      this.calculateTotalPrice();
+      // the backend keeps the total at the effective (discounted) prices
+      if (cart.totalPrice !== undefined) {
+        this.totalPrice = cart.totalPrice;
+      } else {
+        this.calculateTotalPrice();
+      }
     });
   }
 
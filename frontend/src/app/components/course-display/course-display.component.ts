@@ -131,11 +131,9 @@ export class CourseDisplayComponent implements OnInit {
 
   checkCourseCompletion(courseId: number): void {
     this.courseService
-      .getUsersCompletedCourses()
-      .subscribe((completedCourses) => {
-        this.courseCompleted = completedCourses.some(
-          (course) => course.id === courseId
-        );
+      .hasCompletedCourse(courseId)
+      .subscribe((completed) => {
+        this.courseCompleted = completed;
       });
   }
 }
@@ -12,6 +12,7 @@ export class CoursesListItemComponent implements OnInit {
   @Input() price!: number;
   @Input() discountPrice!: number;
   @Input() rating!: number;
+  @Input() owned: boolean = false;
 
   ngOnInit(): void {
     if(isDevMode() == true) {
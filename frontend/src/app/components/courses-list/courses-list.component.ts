@@ -1,6 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { Course } from 'src/app/interfaces/course.interface';
 import { CourseService } from 'src/app/services/course/course.service';
+import { CartService } from 'src/app/services/cart/cart.service';
 
 @Component({
   selector: 'app-courses-list',
@@ -9,12 +10,16 @@ import { CourseService } from 'src/app/services/course/course.service';
 })
 export class CoursesListComponent implements OnInit {
   courses: Course[] = [];
+  ownedCourses: { [courseId: number]: boolean } = {};
 
-  constructor(private courseService: CourseService) { }
+  constructor(private courseService: CourseService, private cartService: CartService) { }
 
   ngOnInit(): void {
     this.courseService.getCoursesByFilter().subscribe((filteredResponse) => {
       this.courses = filteredResponse.courses;
+      this.cartService.getOwnedCourses(this.courses.slice(0, 5).map(course => course.id)).subscribe((owned) => {
+        this.ownedCourses = owned;
+      });
     });
   }
 
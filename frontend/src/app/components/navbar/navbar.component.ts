@@ -1,18 +1,19 @@
-import { Component, EventEmitter, OnInit, Output } from '@angular/core';
+import { Component, EventEmitter, OnDestroy, OnInit, Output } from '@angular/core';
+import { Subscription } from 'rxjs';
 import { Router } from '@angular/router';
 import { AuthService } from 'src/app/services/auth.service';
 import { NotificationService } from 'src/app/services/notification/notification.service';
-import { Notification } from 'src/app/interfaces/notification.interface';
 @Component({
   selector: 'app-navbar',
   templateUrl: './navbar.component.html',
   styleUrls: ['./navbar.component.css'],
 })
-export class NavbarComponent implements OnInit {
+export class NavbarComponent implements OnInit, OnDestroy {
   searchInput: string = '';
   isLoggedIn: boolean = false;
   userInitials: string = '';
-  notificationList: Notification[] = [];
+  unreadCount: number = 0;
+  private notificationStream?: Subscription;
 
   @Output() searchEvent = new EventEmitter<string>();
 
@@ -25,15 +26,26 @@ export class NavbarComponent implements OnInit {
   ngOnInit(): void {
     this.authService.currentUser.subscribe((user) => {
       this.isLoggedIn = !!user;
+      this.notificationStream?.unsubscribe();
+      this.notificationStream = undefined;
+      this.unreadCount = 0;
       if (user) {
         this.userInitials = this.getUserInitials(user.firstName, user.lastName);
+        this.notificationStream = this.notificationService.streamNotifications().subscribe({
+          next: (event) => {
+            if (event.event === 'unread-count') {
+              this.unreadCount = Number(event.data);
+            }
+          },
+          // the stream only fails for a rejected token, the next login subscribes again
+          error: () => this.notificationStream = undefined,
+        });
       }
     });
-    this.notificationService.getUsersNotificationsByStatus('UNREAD').subscribe((response)=>{
-      console.log("Notifications")
-      console.log(response);
-      this.notificationList = response;
-    });
+  }
+
+  ngOnDestroy(): void {
+    this.notificationStream?.unsubscribe();
   }
 
   onSearchHandler(): void {
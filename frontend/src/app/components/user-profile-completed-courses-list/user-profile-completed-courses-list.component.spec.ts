@@ -1,7 +1,7 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
 import { of } from 'rxjs';
 import { CourseService } from 'src/app/services/course/course.service';
-import { Course } from 'src/app/interfaces/course.interface';
+import { CompletedCourse } from 'src/app/interfaces/completedCourse.interface';
 import { UserProfileCompletedCoursesListComponent } from './user-profile-completed-courses-list.component';
 import { HttpClientModule } from '@angular/common/http';
 import { HttpClientTestingModule } from '@angular/common/http/testing';
@@ -11,38 +11,20 @@ describe('UserProfileCompletedCoursesListComponent', () => {
   let fixture: ComponentFixture<UserProfileCompletedCoursesListComponent>;
   let courseServiceMock: any;
 
-  const mockCourses: Course[] = [
+  const mockCourses: CompletedCourse[] = [
     {
       id: 1,
       title: 'Course 1',
-      description: 'Description 1',
-      price: 100,
-      discountPrice: 90,
-      categories: ['Category 1'],
-      language: 'English',
-      totalDuration: 120,
       rating: 4.5,
       imageUrl: 'http://example.com/course1.jpg',
-      lessons: [],
-      enrollmentCount: 100,
-      courseState: 'completed',
-      targetAudience: 'beginners',
+      completionId: 11,
     },
     {
       id: 2,
       title: 'Course 2',
-      description: 'Description 2',
-      price: 200,
-      discountPrice: 180,
-      categories: ['Category 2'],
-      language: 'Spanish',
-      totalDuration: 150,
       rating: 4.7,
       imageUrl: 'http://example.com/course2.jpg',
-      lessons: [],
-      enrollmentCount: 200,
-      courseState: 'completed',
-      targetAudience: 'intermediate',
+      completionId: 10,
     },
   ];
 
@@ -50,7 +32,9 @@ describe('UserProfileCompletedCoursesListComponent', () => {
     courseServiceMock = jasmine.createSpyObj('CourseService', [
       'getUsersCompletedCourses',
     ]);
-    courseServiceMock.getUsersCompletedCourses.and.returnValue(of(mockCourses));
+    courseServiceMock.getUsersCompletedCourses.and.returnValue(
+      of({ items: mockCourses, nextCursor: null })
+    );
 
     await TestBed.configureTestingModule({
       declarations: [UserProfileCompletedCoursesListComponent],
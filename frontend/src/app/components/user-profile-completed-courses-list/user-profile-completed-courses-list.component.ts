@@ -1,6 +1,6 @@
 import { Component, OnInit } from '@angular/core';
 import { CourseService } from 'src/app/services/course/course.service';
-import { Course } from 'src/app/interfaces/course.interface';
+import { CompletedCourse } from 'src/app/interfaces/completedCourse.interface';
 
 @Component({
   selector: 'app-user-profile-completed-courses-list',
@@ -8,13 +8,21 @@ import { Course } from 'src/app/interfaces/course.interface';
   styleUrls: ['./user-profile-completed-courses-list.component.css'],
 })
 export class UserProfileCompletedCoursesListComponent implements OnInit {
-  courses: Course[] = [];
+  courses: CompletedCourse[] = [];
+  nextCursor: number | null = null;
 
   constructor(private courseService: CourseService) {}
 
   ngOnInit(): void {
-    this.courseService.getUsersCompletedCourses().subscribe((courses) => {
-      this.courses = courses;
+    this.courses = [];
+    this.nextCursor = null;
+    this.loadMore();
+  }
+
+  loadMore(): void {
+    this.courseService.getUsersCompletedCourses(this.nextCursor).subscribe((page) => {
+      this.courses = this.courses.concat(page.items);
+      this.nextCursor = page.nextCursor;
     });
   }
 }
@@ -37,11 +37,10 @@ export class UserProfileComponent implements OnInit {
     });
     this.notificationService.getUsersNotificationsByStatus("UNREAD").subscribe((response)=>{
       this.notificationList = response;
-      this.notificationList.forEach((notification) => {
-        this.notificationService.updateNotificationStatus(notification.id, "READ").subscribe((response) => {
-          console.log(response);
-        });
-      });
+      if (this.notificationList.length > 0) {
+        // newest first, so the first id covers the whole list
+        this.notificationService.updateNotificationStatuses("READ", undefined, this.notificationList[0].id).subscribe();
+      }
     });
   }
 
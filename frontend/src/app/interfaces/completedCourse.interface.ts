@@ -0,0 +1,13 @@
+export interface CompletedCourse {
+    id: number;
+    title: string;
+    rating: number;
+    imageUrl: string;
+    completionId: number;
+    completedAt?: string;
+}
+
+export interface CompletedCoursePage {
+    items: CompletedCourse[];
+    nextCursor: number | null;
+}
@@ -2,4 +2,15 @@ export interface Notification {
     id: number;
     message: string;
     notificationStatus: string;
-}
\ No newline at end of file
+    createdAt?: string;
+}
+
+export interface NotificationStreamEvent {
+    event: string;
+    data: string;
+}
+
+export interface NotificationPage {
+    items: Notification[];
+    nextCursor: number | null;
+}
@@ -36,9 +36,11 @@ export class AuthService {
 
   login(email: string, password: string): Observable<any> {
     return this.http
-      .post<any>(`http://localhost:8080/api/v1/auth/login`, { email, password })
+      .post<any>(`http://localhost:8080/api/v1/auth/login`, { email, password, cartId: this.guestCartId() })
       .pipe(
         map((response) => {
+          // the backend has merged the guest cart into the user's cart
+          localStorage.removeItem('cartId');
           this.storeUserCredentials(response);
           return response;
         })
@@ -57,15 +59,22 @@ export class AuthService {
         password,
         firstName,
         lastName,
+        cartId: this.guestCartId(),
       })
       .pipe(
         map((response) => {
+          localStorage.removeItem('cartId');
           this.storeUserCredentials(response);
           return response;
         })
       );
   }
 
+  private guestCartId(): number | null {
+    const cartId = localStorage.getItem('cartId');
+    return cartId ? Number(cartId) : null;
+  }
+
   private storeUserCredentials(response: any) {
     const user = response.user;
 
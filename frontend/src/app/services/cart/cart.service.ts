@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable, forkJoin, of, catchError } from 'rxjs';
-import { map, switchMap } from 'rxjs/operators';
+import { Observable, of, catchError } from 'rxjs';
+import { map } from 'rxjs/operators';
 import { CartItem } from '../../interfaces/cartItem.interface';
 import { Course } from 'src/app/interfaces/course.interface';
 
@@ -73,41 +73,29 @@ export class CartService {
     );
   }
 
+  addCartItems(courseIds: number[]): Observable<any> {
+    return this.http.post<any>(`${this.apiUrl}/cartItems/batch`, { courseIds: courseIds });
+  }
+
+  // only left over after a Google login, email logins hand the guest cart to the backend to merge
   handleLoggedInUser(): void {
     const cartId = Number(localStorage.getItem('cartId'));
     if (cartId) {
       this.getCartByCartID(cartId).subscribe((cart) => {
-        this.addItemsToLoggedInUserCart(cart.items).subscribe(
-          (error) => {
-            console.log("Error:", error);
-          }
-        );
+        const courseIds = cart.items ? cart.items.map((item: any) => item.course.id) : [];
+        if (courseIds.length === 0) {
+          localStorage.removeItem('cartId');
+          return;
+        }
+        // the guest cart is forgotten only once its courses are in the user's cart, owned ones are skipped
+        this.addCartItems(courseIds).subscribe({
+          next: () => localStorage.removeItem('cartId'),
+          error: (error) => console.log("Error:", error)
+        });
       });
     }
   }
 
-  private addItemsToLoggedInUserCart(items: any[]): Observable<any> {
-    localStorage.removeItem('cartId');
-  
-    return this.getCart().pipe(
-      switchMap((cart) => {
-        if (!cart || Object.keys(cart).length === 0) {
-          return forkJoin(items.map((item: any) => this.addCartItem(item.course.id)));
-        } else {
-          console.log('Items in cart');
-          const existingCourseIds = cart.items ? cart.items.map((item: any) => item.course.id) : [];
-          const newItems = items.filter((item: any) => !existingCourseIds.includes(item.course.id));
-  
-          if (newItems.length > 0) {
-            return forkJoin(newItems.map((item: any) => this.addCartItem(item.course.id)));
-          } else {
-            return of(null);
-          }
-        }
-      })
-    );
-  }
-
   getPendingCartsByUser(email: string): Observable<any> {
     return this.http.get<any>(`${this.apiUrl}/carts/user/${email}/pending`);
   }
@@ -115,5 +103,16 @@ export class CartService {
   hasBoughtCourse(courseId: number): Observable<boolean> {
     return this.http.get<boolean>(`${this.apiUrl}/carts/courses/${courseId}/me`)
   }
+
+  // ownership of many courses in one request, for lists of course cards
+  getOwnedCourses(courseIds: number[]): Observable<{ [courseId: number]: boolean }> {
+    if (courseIds.length === 0 || !localStorage.getItem('currentUser')) {
+      return of({});
+    }
+    return this.http.post<any>(`${this.apiUrl}/me/entitlements/query`, { courseIds: courseIds }).pipe(
+      map(response => response.owned),
+      catchError(() => of({}))
+    );
+  }
   
 }
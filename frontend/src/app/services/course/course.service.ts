@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Course } from '../../interfaces/course.interface';
+import { CompletedCoursePage } from '../../interfaces/completedCourse.interface';
 import { environment } from 'src/environments/environment';
 import { CourseFilter } from '../../interfaces/courseFilter.interface';
 import { CourseState } from 'src/app/enums/course.state';
@@ -86,9 +87,17 @@ export class CourseService {
     );
   }
 
-  getUsersCompletedCourses(): Observable<Course[]> {
-    return this.http.get<Course[]>(
-      `${environment.apiUrl}/api/v1/completed-courses`
+  getUsersCompletedCourses(cursor?: number | null): Observable<CompletedCoursePage> {
+    const params: any = cursor ? { cursor } : {};
+    return this.http.get<CompletedCoursePage>(
+      `${environment.apiUrl}/api/v1/completed-courses`,
+      { params }
+    );
+  }
+
+  hasCompletedCourse(courseId: number): Observable<boolean> {
+    return this.http.get<boolean>(
+      `${environment.apiUrl}/api/v1/completed-courses/${courseId}`
     );
   }
 
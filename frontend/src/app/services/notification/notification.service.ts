@@ -1,7 +1,8 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
-import { Notification } from 'src/app/interfaces/notification.interface';
+import { Observable, throwError, timer } from 'rxjs';
+import { map, repeat, retry } from 'rxjs/operators';
+import { Notification, NotificationPage, NotificationStreamEvent } from 'src/app/interfaces/notification.interface';
 import { environment } from 'src/environments/environment';
 
 @Injectable({
@@ -13,15 +14,82 @@ export class NotificationService {
     private http: HttpClient
   ) { }
 
-  getUsersNotifications() : Observable<Notification[]> {
-    return this.http.get<Notification[]>(`${environment.apiUrl}/api/v1/notifications/me`);
+  getUsersNotifications(status?: string, cursor?: number | null) : Observable<NotificationPage> {
+    const params: any = {};
+    if (status) params.status = status;
+    if (cursor) params.cursor = cursor;
+    return this.http.get<NotificationPage>(`${environment.apiUrl}/api/v1/notifications/me`, { params });
   }
 
   getUsersNotificationsByStatus(status: string) : Observable<Notification[]> {
-    return this.http.get<Notification[]>(`${environment.apiUrl}/api/v1/notifications/${status}/me`);
+    return this.getUsersNotifications(status).pipe(map((page) => page.items));
   }
 
   updateNotificationStatus(notificationId: number, status: string) : Observable<Notification> {
     return this.http.put<Notification>(`${environment.apiUrl}/api/v1/notifications/${notificationId}`, {notificationStatus: status});
   }
+
+  // sets the status of the given ids, or of every notification up to upTo, returns the new unread count
+  updateNotificationStatuses(status: string, ids?: number[], upTo?: number) : Observable<{ unreadCount: number }> {
+    return this.http.put<{ unreadCount: number }>(`${environment.apiUrl}/api/v1/notifications/me/status`, {notificationStatus: status, ids, upTo});
+  }
+
+  // EventSource cannot send the Authorization header, so the stream is read with fetch
+  streamNotifications() : Observable<NotificationStreamEvent> {
+    return new Observable<NotificationStreamEvent>((subscriber) => {
+      const controller = new AbortController();
+      fetch(`${environment.apiUrl}/api/v1/notifications/stream`, {
+        headers: {
+          Accept: 'text/event-stream',
+          Authorization: `Bearer ${localStorage.getItem('accessToken')}`,
+        },
+        signal: controller.signal,
+      }).then(async (response) => {
+        if (!response.ok || !response.body) {
+          throw Object.assign(new Error(`Notification stream failed with status ${response.status}`), { status: response.status });
+        }
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true });
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const event = this.parseEvent(buffer.substring(0, end));
+            buffer = buffer.substring(end + 2);
+            if (event) subscriber.next(event);
+          }
+        }
+        subscriber.complete();
+      }).catch((error) => {
+        if (!controller.signal.aborted) subscriber.error(error);
+      });
+      return () => controller.abort();
+    }).pipe(
+      // the server closes the stream after its timeout, reconnect in both cases
+      retry({ delay: (error, retryCount) => this.reconnectDelay(error, retryCount), resetOnSuccess: true }),
+      repeat({ delay: 1000 })
+    );
+  }
+
+  // a rejected token stays rejected, other failures back off from 1s up to a minute with jitter
+  private reconnectDelay(error: any, retryCount: number) : Observable<number> {
+    if (error?.status === 401 || error?.status === 403) {
+      return throwError(() => error);
+    }
+    const backoff = Math.min(60000, 1000 * 2 ** (retryCount - 1));
+    return timer(backoff / 2 + Math.random() * backoff / 2);
+  }
+
+  private parseEvent(block: string) : NotificationStreamEvent | null {
+    let event = 'message';
+    const data: string[] = [];
+    block.split('\n').forEach((line) => {
+      if (line.startsWith('event:')) event = line.substring(6).trim();
+      else if (line.startsWith('data:')) data.push(line.substring(5));
+    });
+    return data.length > 0 ? { event, data: data.join('\n') } : null;
+  }
 }